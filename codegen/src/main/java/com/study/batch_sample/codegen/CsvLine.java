@@ -0,0 +1,26 @@
+package com.study.batch_sample.codegen;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 구분자 한 줄(line) 과 매핑되는 모델 클래스에 붙인다.
+ * 컴파일 시점에 같은 패키지에 {클래스명}LineCodec 이 생성되며,
+ * Spring Batch 의 LineMapper 와 LineAggregator 를 리플렉션 없이 구현한다.
+ *
+ * 지원 타입: String, int/Integer, long/Long, LocalDate(yyyy-MM-dd)
+ * 따옴표(quote) 로 감싼 필드는 지원하지 않는다.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface CsvLine {
+
+    /**
+     * 줄에 나오는 순서대로의 필드 이름
+     */
+    String[] fields();
+
+    char delimiter() default ',';
+}
@@ -0,0 +1,334 @@
+package com.study.batch_sample.codegen;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * {@link CsvLine} 이 붙은 클래스마다 {클래스명}LineCodec 소스를 생성한다.
+ * 생성된 코덱은 구분자 위치만 찾아 필드를 바로 파싱하고(FieldSet / BeanWrapper 없음),
+ * 출력은 스레드별로 재사용하는 StringBuilder 에 직접 쓴다.
+ */
+@SupportedAnnotationTypes("com.study.batch_sample.codegen.CsvLine")
+public class CsvLineProcessor extends AbstractProcessor {
+
+    private static final String LINE_MAPPER = "org.springframework.batch.item.file.LineMapper";
+    private static final String LINE_AGGREGATOR = "org.springframework.batch.item.file.transform.LineAggregator";
+    private static final String INCORRECT_TOKEN_COUNT = "org.springframework.batch.item.file.transform.IncorrectTokenCountException";
+
+    private enum FieldType {
+        STRING, INT, INTEGER, LONG, LONG_WRAPPER, LOCAL_DATE
+    }
+
+    private record Field(String name, FieldType type) {
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(CsvLine.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                error(element, "@CsvLine can only be applied to classes");
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            CsvLine csvLine = type.getAnnotation(CsvLine.class);
+
+            List<Field> fields = new ArrayList<>();
+            boolean valid = true;
+            for (String name : csvLine.fields()) {
+                VariableElement field = findField(type, name);
+                if (field == null) {
+                    error(type, "No field '" + name + "' in " + type.getQualifiedName());
+                    valid = false;
+                    continue;
+                }
+                FieldType fieldType = fieldType(field.asType());
+                if (fieldType == null) {
+                    error(field, "Unsupported @CsvLine field type: " + field.asType());
+                    valid = false;
+                    continue;
+                }
+                fields.add(new Field(name, fieldType));
+            }
+            if (!valid) {
+                continue;
+            }
+            if (fields.isEmpty()) {
+                error(type, "@CsvLine requires at least one field");
+                continue;
+            }
+
+            try {
+                writeCodec(type, csvLine.delimiter(), fields);
+            } catch (IOException e) {
+                error(type, "Failed to generate line codec: " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    private VariableElement findField(TypeElement type, String name) {
+        TypeElement current = type;
+        while (current != null) {
+            for (Element enclosed : current.getEnclosedElements()) {
+                if (enclosed.getKind() == ElementKind.FIELD && enclosed.getSimpleName().contentEquals(name)) {
+                    return (VariableElement) enclosed;
+                }
+            }
+            TypeMirror superclass = current.getSuperclass();
+            current = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+        }
+        return null;
+    }
+
+    private FieldType fieldType(TypeMirror type) {
+        if (type.getKind() == TypeKind.INT) {
+            return FieldType.INT;
+        }
+        if (type.getKind() == TypeKind.LONG) {
+            return FieldType.LONG;
+        }
+        if (type.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        String name = ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString();
+        return switch (name) {
+            case "java.lang.String" -> FieldType.STRING;
+            case "java.lang.Integer" -> FieldType.INTEGER;
+            case "java.lang.Long" -> FieldType.LONG_WRAPPER;
+            case "java.time.LocalDate" -> FieldType.LOCAL_DATE;
+            default -> null;
+        };
+    }
+
+    private void writeCodec(TypeElement type, char delimiter, List<Field> fields) throws IOException {
+        String packageName = ((PackageElement) processingEnv.getElementUtils().getPackageOf(type)).getQualifiedName().toString();
+        String itemType = type.getSimpleName().toString();
+        String codecName = itemType + "LineCodec";
+
+        StringBuilder src = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            src.append("package ").append(packageName).append(";\n\n");
+        }
+        src.append("@javax.annotation.processing.Generated(\"").append(CsvLineProcessor.class.getName()).append("\")\n");
+        src.append("public final class ").append(codecName)
+                .append(" implements ").append(LINE_MAPPER).append('<').append(itemType).append(">, ")
+                .append(LINE_AGGREGATOR).append('<').append(itemType).append("> {\n\n");
+
+        src.append("    private static final char DELIMITER = '").append(escape(delimiter)).append("';\n");
+        src.append("    private static final int FIELD_COUNT = ").append(fields.size()).append(";\n");
+        src.append("    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(128));\n\n");
+
+        // LineMapper
+        src.append("    @Override\n");
+        src.append("    public ").append(itemType).append(" mapLine(String line, int lineNumber) {\n");
+        src.append("        ").append(itemType).append(" item = new ").append(itemType).append("();\n");
+        src.append("        int start = 0;\n");
+        src.append("        int end;\n");
+        for (int i = 0; i < fields.size(); i++) {
+            Field field = fields.get(i);
+            if (i < fields.size() - 1) {
+                src.append("        end = nextDelimiter(line, start, ").append(i).append(");\n");
+            } else {
+                src.append("        end = lastFieldEnd(line, start);\n");
+            }
+            src.append("        item.set").append(capitalize(field.name())).append('(').append(parseExpression(field.type())).append(");\n");
+            if (i < fields.size() - 1) {
+                src.append("        start = end + 1;\n");
+            }
+        }
+        src.append("        return item;\n");
+        src.append("    }\n\n");
+
+        // LineAggregator
+        src.append("    @Override\n");
+        src.append("    public String aggregate(").append(itemType).append(" item) {\n");
+        src.append("        StringBuilder line = BUFFER.get();\n");
+        src.append("        line.setLength(0);\n");
+        for (int i = 0; i < fields.size(); i++) {
+            Field field = fields.get(i);
+            if (i > 0) {
+                src.append("        line.append(DELIMITER);\n");
+            }
+            src.append(appendStatement(field, i));
+        }
+        src.append("        return line.toString();\n");
+        src.append("    }\n\n");
+
+        src.append(HELPERS);
+        src.append("}\n");
+
+        String qualifiedName = packageName.isEmpty() ? codecName : packageName + "." + codecName;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter()) {
+            writer.write(src.toString());
+        }
+    }
+
+    private String parseExpression(FieldType type) {
+        return switch (type) {
+            case STRING -> "line.substring(start, end)";
+            case INT -> "parseInt(line, start, end)";
+            case INTEGER -> "isBlank(line, start, end) ? null : parseInt(line, start, end)";
+            case LONG -> "parseLong(line, start, end)";
+            case LONG_WRAPPER -> "isBlank(line, start, end) ? null : parseLong(line, start, end)";
+            case LOCAL_DATE -> "isBlank(line, start, end) ? null : parseDate(line, start, end)";
+        };
+    }
+
+    private String appendStatement(Field field, int index) {
+        String getter = "item.get" + capitalize(field.name()) + "()";
+        String local = "value" + index;
+        return switch (field.type()) {
+            case INT, LONG -> "        line.append(" + getter + ");\n";
+            case STRING -> "        String " + local + " = " + getter + ";\n"
+                    + "        if (" + local + " != null) {\n"
+                    + "            line.append(" + local + ");\n"
+                    + "        }\n";
+            case INTEGER -> "        Integer " + local + " = " + getter + ";\n"
+                    + "        if (" + local + " != null) {\n"
+                    + "            line.append(" + local + ".intValue());\n"
+                    + "        }\n";
+            case LONG_WRAPPER -> "        Long " + local + " = " + getter + ";\n"
+                    + "        if (" + local + " != null) {\n"
+                    + "            line.append(" + local + ".longValue());\n"
+                    + "        }\n";
+            case LOCAL_DATE -> "        java.time.LocalDate " + local + " = " + getter + ";\n"
+                    + "        if (" + local + " != null) {\n"
+                    + "            appendDate(line, " + local + ");\n"
+                    + "        }\n";
+        };
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static String escape(char c) {
+        return switch (c) {
+            case '\t' -> "\\t";
+            case '\'' -> "\\'";
+            case '\\' -> "\\\\";
+            default -> String.valueOf(c);
+        };
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private static final String HELPERS = """
+                private static int nextDelimiter(String line, int start, int fieldIndex) {
+                    int end = line.indexOf(DELIMITER, start);
+                    if (end < 0) {
+                        throw new %1$s(FIELD_COUNT, fieldIndex + 1, line);
+                    }
+                    return end;
+                }
+
+                private static int lastFieldEnd(String line, int start) {
+                    if (line.indexOf(DELIMITER, start) >= 0) {
+                        int count = 1;
+                        for (int i = 0; i < line.length(); i++) {
+                            if (line.charAt(i) == DELIMITER) {
+                                count++;
+                            }
+                        }
+                        throw new %1$s(FIELD_COUNT, count, line);
+                    }
+                    return line.length();
+                }
+
+                private static boolean isBlank(String line, int start, int end) {
+                    for (int i = start; i < end; i++) {
+                        if (!Character.isWhitespace(line.charAt(i))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+
+                private static int trimStart(String line, int start, int end) {
+                    while (start < end && Character.isWhitespace(line.charAt(start))) {
+                        start++;
+                    }
+                    return start;
+                }
+
+                private static int trimEnd(String line, int start, int end) {
+                    while (end > start && Character.isWhitespace(line.charAt(end - 1))) {
+                        end--;
+                    }
+                    return end;
+                }
+
+                private static int parseInt(String line, int start, int end) {
+                    return Integer.parseInt(line, trimStart(line, start, end), trimEnd(line, start, end), 10);
+                }
+
+                private static long parseLong(String line, int start, int end) {
+                    return Long.parseLong(line, trimStart(line, start, end), trimEnd(line, start, end), 10);
+                }
+
+                private static java.time.LocalDate parseDate(String line, int start, int end) {
+                    int from = trimStart(line, start, end);
+                    int to = trimEnd(line, start, end);
+                    if (to - from != 10 || line.charAt(from + 4) != '-' || line.charAt(from + 7) != '-') {
+                        throw new java.time.format.DateTimeParseException("Expected yyyy-MM-dd", line.substring(from, to), 0);
+                    }
+                    return java.time.LocalDate.of(
+                            digits(line, from, from + 4),
+                            digits(line, from + 5, from + 7),
+                            digits(line, from + 8, from + 10));
+                }
+
+                private static int digits(String line, int start, int end) {
+                    int value = 0;
+                    for (int i = start; i < end; i++) {
+                        int digit = line.charAt(i) - '0';
+                        if (digit < 0 || digit > 9) {
+                            throw new java.time.format.DateTimeParseException("Expected yyyy-MM-dd", line, i);
+                        }
+                        value = value * 10 + digit;
+                    }
+                    return value;
+                }
+
+                private static void appendDate(StringBuilder line, java.time.LocalDate date) {
+                    int year = date.getYear();
+                    if (year < 1000) {
+                        line.append(year < 10 ? "000" : year < 100 ? "00" : "0");
+                    }
+                    line.append(year).append('-');
+                    appendTwoDigits(line, date.getMonthValue());
+                    line.append('-');
+                    appendTwoDigits(line, date.getDayOfMonth());
+                }
+
+                private static void appendTwoDigits(StringBuilder line, int value) {
+                    if (value < 10) {
+                        line.append('0');
+                    }
+                    line.append(value);
+                }
+            """.formatted(INCORRECT_TOKEN_COUNT);
+}
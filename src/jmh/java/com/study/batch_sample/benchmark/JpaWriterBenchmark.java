@@ -0,0 +1,131 @@
+package com.study.batch_sample.benchmark;
+
+import com.study.batch_sample.entity.Customer;
+import com.study.batch_sample.support.jpa.StatelessSessionItemWriter;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.database.builder.JpaItemWriterBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JpaPagingWriterJobConfig 의 writer 비교: JpaItemWriter(persist) 와 StatelessSessionItemWriter.
+ * H2 in-memory 에 invocation 마다 chunk 하나(2 건 또는 100 건)를 한 트랜잭션으로 insert 한다.
+ * {@code @OperationsPerInvocation} 으로 row 하나를 op 로 세므로 결과(ops/s)가 곧 rows/s 이고, chunk 크기가 달라도 바로 비교할 수 있다.
+ * application.yml 과 같은 hibernate batch / pooled-lo 설정을 쓴다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JpaWriterBenchmark {
+
+    // @OperationsPerInvocation 은 상수만 받으므로 chunk 크기별로 benchmark 메서드를 나눈다
+    private static final int SMALL_CHUNK = 2;
+    private static final int LARGE_CHUNK = 100;
+
+    private EmbeddedDatabase dataSource;
+    private LocalContainerEntityManagerFactoryBean entityManagerFactoryBean;
+    private TransactionTemplate transactionTemplate;
+    private ItemWriter<Customer> jpaItemWriter;
+    private ItemWriter<Customer> statelessSessionWriter;
+
+    @Setup
+    public void setUp() {
+        dataSource = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+
+        entityManagerFactoryBean = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactoryBean.setDataSource(dataSource);
+        entityManagerFactoryBean.setPackagesToScan("com.study.batch_sample.entity");
+        entityManagerFactoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactoryBean.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", "create-drop",
+                "hibernate.id.optimizer.pooled.preferred", "pooled-lo",
+                "hibernate.jdbc.batch_size", "100",
+                "hibernate.order_inserts", "true"));
+        entityManagerFactoryBean.afterPropertiesSet();
+        EntityManagerFactory entityManagerFactory = entityManagerFactoryBean.getObject();
+
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        transactionManager.setDataSource(dataSource);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        jpaItemWriter = new JpaItemWriterBuilder<Customer>()
+                .entityManagerFactory(entityManagerFactory)
+                .usePersist(true)
+                .build();
+        statelessSessionWriter = new StatelessSessionItemWriter<>(entityManagerFactory, dataSource, LARGE_CHUNK);
+    }
+
+    // 테이블이 계속 커지지 않도록 iteration 마다 비운다
+    @Setup(Level.Iteration)
+    public void truncate() {
+        new JdbcTemplate(dataSource).execute("TRUNCATE TABLE customer");
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManagerFactoryBean.destroy();
+        dataSource.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SMALL_CHUNK)
+    public void jpaItemWriterChunk2() {
+        write(jpaItemWriter, SMALL_CHUNK);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LARGE_CHUNK)
+    public void jpaItemWriterChunk100() {
+        write(jpaItemWriter, LARGE_CHUNK);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SMALL_CHUNK)
+    public void statelessSessionWriterChunk2() {
+        write(statelessSessionWriter, SMALL_CHUNK);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LARGE_CHUNK)
+    public void statelessSessionWriterChunk100() {
+        write(statelessSessionWriter, LARGE_CHUNK);
+    }
+
+    private void write(ItemWriter<Customer> writer, int chunkSize) {
+        Chunk<Customer> chunk = new Chunk<>();
+        for (int i = 0; i < chunkSize; i++) {
+            chunk.add(new Customer(0, "name" + i, 20 + i % 50, i % 2 == 0 ? "M" : "F"));
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                writer.write(chunk);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,121 @@
+package com.study.batch_sample.benchmark;
+
+import com.study.batch_sample.common.Customer;
+import com.study.batch_sample.common.CustomerLineCodec;
+import com.study.batch_sample.common.User;
+import com.study.batch_sample.common.UserLineCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.batch.item.file.mapping.BeanWrapperFieldSetMapper;
+import org.springframework.batch.item.file.mapping.DefaultLineMapper;
+import org.springframework.batch.item.file.transform.BeanWrapperFieldExtractor;
+import org.springframework.batch.item.file.transform.DelimitedLineAggregator;
+import org.springframework.batch.item.file.transform.DelimitedLineTokenizer;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @CsvLine 로 생성된 코덱과 이전 매핑 방식(BeanWrapper / FieldSet / String.format) 비교.
+ * ./gradlew jmh 로 실행하며 gc profiler 의 gc.alloc.rate.norm 이 item 당 할당량이다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LineCodecBenchmark {
+
+    private static final String CUSTOMER_LINE = "홍길동,35,M";
+    private static final String USER_LINE = "1024,kim,2024-03-15";
+
+    private DefaultLineMapper<Customer> beanWrapperCustomerMapper;
+    private DelimitedLineAggregator<Customer> beanWrapperCustomerAggregator;
+    private DefaultLineMapper<User> fieldSetUserMapper;
+    private final CustomerLineCodec customerCodec = new CustomerLineCodec();
+    private final UserLineCodec userCodec = new UserLineCodec();
+
+    private Customer customer;
+    private User user;
+
+    @Setup
+    public void setUp() throws Exception {
+        DelimitedLineTokenizer customerTokenizer = new DelimitedLineTokenizer();
+        customerTokenizer.setNames("name", "age", "gender");
+        BeanWrapperFieldSetMapper<Customer> customerFieldSetMapper = new BeanWrapperFieldSetMapper<>();
+        customerFieldSetMapper.setTargetType(Customer.class);
+        customerFieldSetMapper.afterPropertiesSet();
+        beanWrapperCustomerMapper = new DefaultLineMapper<>();
+        beanWrapperCustomerMapper.setLineTokenizer(customerTokenizer);
+        beanWrapperCustomerMapper.setFieldSetMapper(customerFieldSetMapper);
+
+        BeanWrapperFieldExtractor<Customer> extractor = new BeanWrapperFieldExtractor<>();
+        extractor.setNames(new String[]{"name", "age", "gender"});
+        beanWrapperCustomerAggregator = new DelimitedLineAggregator<>();
+        beanWrapperCustomerAggregator.setFieldExtractor(extractor);
+
+        // 이전 CsvBatchJobConfig.userLineMapper() 와 같은 구성 (row 마다 DateTimeFormatter 생성)
+        DelimitedLineTokenizer userTokenizer = new DelimitedLineTokenizer();
+        userTokenizer.setNames("id", "name", "lastUpdate");
+        fieldSetUserMapper = new DefaultLineMapper<>();
+        fieldSetUserMapper.setLineTokenizer(userTokenizer);
+        fieldSetUserMapper.setFieldSetMapper(fieldSet -> {
+            User mapped = new User();
+            mapped.setId(fieldSet.readLong("id"));
+            mapped.setName(fieldSet.readString("name"));
+            mapped.setLastUpdate(LocalDate.parse(fieldSet.readString("lastUpdate"), DateTimeFormatter.ofPattern("yyyy-MM-dd")));
+            return mapped;
+        });
+
+        customer = customerCodec.mapLine(CUSTOMER_LINE, 1);
+        user = userCodec.mapLine(USER_LINE, 1);
+    }
+
+    @Benchmark
+    public Customer customerReadBeanWrapper() throws Exception {
+        return beanWrapperCustomerMapper.mapLine(CUSTOMER_LINE, 1);
+    }
+
+    @Benchmark
+    public Customer customerReadCodec() {
+        return customerCodec.mapLine(CUSTOMER_LINE, 1);
+    }
+
+    @Benchmark
+    public String customerWriteBeanWrapper() {
+        return beanWrapperCustomerAggregator.aggregate(customer);
+    }
+
+    @Benchmark
+    public String customerWriteCodec() {
+        return customerCodec.aggregate(customer);
+    }
+
+    @Benchmark
+    public User userReadFieldSet() throws Exception {
+        return fieldSetUserMapper.mapLine(USER_LINE, 1);
+    }
+
+    @Benchmark
+    public User userReadCodec() {
+        return userCodec.mapLine(USER_LINE, 1);
+    }
+
+    // 이전 UserItemWriter 의 LineAggregator
+    @Benchmark
+    public String userWriteStringFormat() {
+        return String.format("%d,%s,%s",
+                user.getId(),
+                user.getName(),
+                user.getLastUpdate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")));
+    }
+
+    @Benchmark
+    public String userWriteCodec() {
+        return userCodec.aggregate(user);
+    }
+}
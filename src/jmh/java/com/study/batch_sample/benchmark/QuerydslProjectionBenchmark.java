@@ -0,0 +1,121 @@
+package com.study.batch_sample.benchmark;
+
+import com.querydsl.core.types.Projections;
+import com.study.batch_sample.entity.QCustomer;
+import com.study.batch_sample.week9.job.QuerydslPagingItemReader;
+import com.study.batch_sample.week9.job.QuerydslPagingItemReaderBuilder;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * QueryDSLPagingReaderJobConfig(엔티티 조회) 와 QueryDSLProjectionReaderJobConfig(DTO projection) 의 reader 비교.
+ * H2 in-memory 에 ROWS 건을 넣고, op 하나가 reader 를 열어 끝까지 읽는다.
+ * gc profiler 의 gc.alloc.rate.norm 을 ROWS 로 나누면 item 당 할당량이다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QuerydslProjectionBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    @Param({"100"})
+    private int chunkSize;
+
+    private EmbeddedDatabase dataSource;
+    private LocalContainerEntityManagerFactoryBean entityManagerFactoryBean;
+    private EntityManagerFactory entityManagerFactory;
+
+    @Setup
+    public void setUp() {
+        dataSource = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+
+        entityManagerFactoryBean = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactoryBean.setDataSource(dataSource);
+        entityManagerFactoryBean.setPackagesToScan("com.study.batch_sample.entity");
+        entityManagerFactoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactoryBean.setJpaPropertyMap(Map.of("hibernate.hbm2ddl.auto", "create-drop"));
+        entityManagerFactoryBean.afterPropertiesSet();
+        entityManagerFactory = entityManagerFactoryBean.getObject();
+
+        List<Object[]> rows = new ArrayList<>(ROWS);
+        for (int i = 1; i <= ROWS; i++) {
+            rows.add(new Object[]{i, "name" + i, 21 + i % 50, i % 2 == 0 ? "M" : "F"});
+        }
+        new JdbcTemplate(dataSource).batchUpdate("INSERT INTO customer (id, name, age, gender) VALUES (?, ?, ?, ?)", rows);
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManagerFactoryBean.destroy();
+        dataSource.shutdown();
+    }
+
+    // QueryDSLPagingReaderJobConfig 의 offset 모드 쿼리 (watermark 조건 제외)
+    @Benchmark
+    public void entityRead(Blackhole blackhole) throws Exception {
+        QCustomer customer = QCustomer.customer;
+        readAll(new QuerydslPagingItemReaderBuilder<com.study.batch_sample.entity.Customer>()
+                .name("entityReader")
+                .entityManagerFactory(entityManagerFactory)
+                .chunkSize(chunkSize)
+                .querySupplier(jpaQueryFactory -> jpaQueryFactory
+                        .select(customer)
+                        .from(customer)
+                        .where(customer.age.gt(20))
+                        .orderBy(customer.id.asc()))
+                .build(), blackhole);
+    }
+
+    // QueryDSLProjectionReaderJobConfig.customerQuerydslProjectionItemReader 와 같은 쿼리
+    @Benchmark
+    public void projectionRead(Blackhole blackhole) throws Exception {
+        QCustomer customer = QCustomer.customer;
+        readAll(new QuerydslPagingItemReaderBuilder<com.study.batch_sample.model.Customer>()
+                .name("projectionReader")
+                .entityManagerFactory(entityManagerFactory)
+                .chunkSize(chunkSize)
+                .projectionSupplier(jpaQueryFactory -> jpaQueryFactory
+                        .select(Projections.fields(com.study.batch_sample.model.Customer.class, customer.name, customer.age, customer.gender))
+                        .from(customer)
+                        .where(customer.age.gt(20))
+                        .orderBy(customer.id.asc()))
+                .build(), blackhole);
+    }
+
+    private static <T> void readAll(QuerydslPagingItemReader<T> reader, Blackhole blackhole) throws Exception {
+        reader.open(new ExecutionContext());
+        try {
+            T item;
+            while ((item = reader.read()) != null) {
+                blackhole.consume(item);
+            }
+        } finally {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.study.batch_sample.benchmark;
+
+import com.study.batch_sample.common.Customer;
+import com.study.batch_sample.week5.config.LambdaPropertySqlParameterSourceProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.batch.item.database.BeanPropertyItemSqlParameterSourceProvider;
+import org.springframework.batch.item.database.ItemSqlParameterSourceProvider;
+import org.springframework.jdbc.core.namedparam.NamedParameterUtils;
+import org.springframework.jdbc.core.namedparam.ParsedSql;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JdbcBatchItemConfig 의 writer 에서 chunk 하나를 binding 값으로 바꾸는 비용 비교.
+ * NamedParameterJdbcTemplate.batchUpdate 가 item 마다 하는 것처럼 값 배열과 sql type 배열을 만든다.
+ * op 하나가 chunkSize 개 item 이고, gc.alloc.rate.norm 을 chunkSize 로 나누면 item 당 할당량이다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SqlParameterSourceProviderBenchmark {
+
+    private static final String SQL = "INSERT INTO customer2 (name, age, gender) VALUES (:name, :age, :gender)";
+
+    @Param({"100"})
+    private int chunkSize;
+
+    private final ParsedSql parsedSql = NamedParameterUtils.parseSqlStatement(SQL);
+    private final ItemSqlParameterSourceProvider<Customer> beanPropertyProvider = new BeanPropertyItemSqlParameterSourceProvider<>();
+    private final ItemSqlParameterSourceProvider<Customer> lambdaPropertyProvider = new LambdaPropertySqlParameterSourceProvider<>(Customer.class);
+
+    private List<Customer> chunk;
+
+    @Setup
+    public void setUp() {
+        chunk = new ArrayList<>(chunkSize);
+        for (int i = 0; i < chunkSize; i++) {
+            Customer customer = new Customer();
+            customer.setName("name" + i);
+            customer.setAge(20 + i % 50);
+            customer.setGender(i % 2 == 0 ? "M" : "F");
+            chunk.add(customer);
+        }
+    }
+
+    @Benchmark
+    public void beanProperty(Blackhole blackhole) {
+        bind(beanPropertyProvider, blackhole);
+    }
+
+    @Benchmark
+    public void lambdaProperty(Blackhole blackhole) {
+        bind(lambdaPropertyProvider, blackhole);
+    }
+
+    private void bind(ItemSqlParameterSourceProvider<Customer> provider, Blackhole blackhole) {
+        for (Customer customer : chunk) {
+            SqlParameterSource source = provider.createSqlParameterSource(customer);
+            blackhole.consume(NamedParameterUtils.buildValueArray(parsedSql, source, null));
+            blackhole.consume(NamedParameterUtils.buildSqlTypeArray(parsedSql, source));
+        }
+    }
+}
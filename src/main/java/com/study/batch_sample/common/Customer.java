@@ -1,5 +1,6 @@
 package com.study.batch_sample.common;
 
+import com.study.batch_sample.codegen.CsvLine;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -11,6 +12,7 @@ import lombok.Setter;
 
 @Getter
 @Setter
+@CsvLine(fields = {"name", "age", "gender"})
 //@Entity
 //@NoArgsConstructor
 //@AllArgsConstructor
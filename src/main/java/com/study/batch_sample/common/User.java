@@ -1,11 +1,13 @@
 package com.study.batch_sample.common;
 
+import com.study.batch_sample.codegen.CsvLine;
 import lombok.Data;
 import org.springframework.format.annotation.DateTimeFormat;
 
 import java.time.LocalDate;
 
 @Data
+@CsvLine(fields = {"id", "name", "lastUpdate"})
 public class User {
     private Long id;
     private String name;
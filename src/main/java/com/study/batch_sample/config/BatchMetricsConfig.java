@@ -0,0 +1,43 @@
+package com.study.batch_sample.config;
+
+import com.study.batch_sample.support.jfr.JfrChunkEventListener;
+import com.study.batch_sample.support.metrics.GlobalStepListener;
+import com.study.batch_sample.support.metrics.GlobalStepListenerRegistrar;
+import com.study.batch_sample.support.metrics.StepMetricsListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 모든 job 의 step 에 Micrometer 지표 listener 와 JFR event listener 를 붙인다.
+ *
+ * 지표는 actuator 의 /actuator/prometheus 로 노출된다. batch 는 기본적으로 web 서버 없이 돌기 때문에
+ * scrape 하려면 metrics profile 로 실행한다. (--spring.profiles.active=metrics, 포트는 application.yml 참고)
+ */
+@Configuration
+public class BatchMetricsConfig {
+
+    // BeanPostProcessor 는 static 으로 선언해 이 config 의 다른 bean 보다 먼저 만들어지게 한다
+    @Bean
+    public static GlobalStepListenerRegistrar globalStepListenerRegistrar(ObjectProvider<GlobalStepListener> globalStepListeners) {
+        return new GlobalStepListenerRegistrar(globalStepListeners);
+    }
+
+    // Item*Listener 는 chunk step builder 에서 이 configurer 로 등록한다
+    @Bean
+    public GlobalStepListenerConfigurer globalStepListenerConfigurer(ObjectProvider<GlobalStepListener> globalStepListeners) {
+        return new GlobalStepListenerConfigurer(globalStepListeners);
+    }
+
+    @Bean
+    public StepMetricsListener stepMetricsListener(MeterRegistry meterRegistry) {
+        return new StepMetricsListener(meterRegistry);
+    }
+
+    // JFR 녹화 중일 때만 event 를 남긴다 (-XX:StartFlightRecording 또는 jcmd <pid> JFR.start)
+    @Bean
+    public JfrChunkEventListener jfrChunkEventListener() {
+        return new JfrChunkEventListener();
+    }
+}
@@ -0,0 +1,77 @@
+package com.study.batch_sample.config;
+
+import com.study.batch_sample.support.partition.PartitionSizing;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import javax.sql.DataSource;
+
+/**
+ * partition handler 와 AsyncProcessingStage 가 같이 쓰는 TaskExecutor.
+ *
+ * - spring.threads.virtual.enabled=true 이고 Java 21 이상이면 virtual thread executor
+ * - 그 외에는 고정 크기 platform thread pool
+ *
+ * 동시 실행 수는 data / meta 커넥션 풀 크기를 넘지 않게 제한한다. (풀보다 많은 스레드는 Hikari 에서 줄만 선다)
+ */
+@Slf4j
+@Configuration
+public class BatchTaskExecutorConfig {
+
+    public static final int VIRTUAL_THREAD_MIN_JAVA_VERSION = 21;
+
+    @Bean
+    public TaskExecutor batchTaskExecutor(
+            @Qualifier("dataSource") DataSource dataSource,
+            @Qualifier("metaDBSource") DataSource metaDBSource,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreadsEnabled) {
+        return createTaskExecutor(concurrency(dataSource, metaDBSource), virtualThreadsEnabled);
+    }
+
+    @Bean
+    public ConcurrentStepConfigurer concurrentStepConfigurer(
+            TaskExecutor batchTaskExecutor,
+            @Qualifier("dataSource") DataSource dataSource,
+            @Qualifier("metaDBSource") DataSource metaDBSource) {
+        return new ConcurrentStepConfigurer(batchTaskExecutor, concurrency(dataSource, metaDBSource));
+    }
+
+    private TaskExecutor createTaskExecutor(int concurrency, boolean virtualThreadsEnabled) {
+        int javaVersion = Runtime.version().feature();
+        if (virtualThreadsEnabled && javaVersion >= VIRTUAL_THREAD_MIN_JAVA_VERSION) {
+            log.info("batchTaskExecutor: virtual threads (concurrency limit {})", concurrency);
+            SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("batch-vt-");
+            taskExecutor.setVirtualThreads(true);
+            taskExecutor.setConcurrencyLimit(concurrency);
+            return taskExecutor;
+        }
+        if (virtualThreadsEnabled) {
+            log.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads (requires {}). Falling back to a platform thread pool.",
+                    javaVersion, VIRTUAL_THREAD_MIN_JAVA_VERSION);
+        }
+
+        log.info("batchTaskExecutor: platform thread pool (size {})", concurrency);
+        ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+        taskExecutor.setCorePoolSize(concurrency);
+        taskExecutor.setMaxPoolSize(concurrency);
+        taskExecutor.setThreadNamePrefix("batch-");
+        taskExecutor.setWaitForTasksToCompleteOnShutdown(true);
+        taskExecutor.initialize();
+        return taskExecutor;
+    }
+
+    private int concurrency(DataSource dataSource, DataSource metaDBSource) {
+        // chunk 하나가 data 커넥션과 meta(트랜잭션 / JobRepository) 커넥션을 함께 잡는다
+        int poolSize = Math.min(PartitionSizing.maxPoolSize(dataSource), PartitionSizing.maxPoolSize(metaDBSource));
+        if (poolSize == Integer.MAX_VALUE) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        return Math.max(1, poolSize);
+    }
+}
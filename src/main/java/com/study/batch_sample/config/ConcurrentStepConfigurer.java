@@ -0,0 +1,32 @@
+package com.study.batch_sample.config;
+
+import org.springframework.core.task.TaskExecutor;
+
+/**
+ * partition step 과 비동기 processor 가 같이 쓰는 batchTaskExecutor 와 동시 실행 수.
+ * <pre>
+ *     new StepBuilder("managerStep", jobRepository)
+ *             .partitioner("workerStep", partitioner)
+ *             .taskExecutor(concurrentStepConfigurer.getTaskExecutor())
+ * </pre>
+ * chunk step 하나를 여러 스레드로 돌리는 multi-threaded step 은 reader 의 재시작 위치를 저장할 수 없어서 제공하지 않는다.
+ * 병렬로 처리할 때는 파티션마다 ExecutionContext 를 따로 갖는 partition step 을 쓴다.
+ */
+public class ConcurrentStepConfigurer {
+
+    private final TaskExecutor taskExecutor;
+    private final int concurrency;
+
+    public ConcurrentStepConfigurer(TaskExecutor taskExecutor, int concurrency) {
+        this.taskExecutor = taskExecutor;
+        this.concurrency = concurrency;
+    }
+
+    public TaskExecutor getTaskExecutor() {
+        return taskExecutor;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+}
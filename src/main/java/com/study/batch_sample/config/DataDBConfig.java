@@ -1,5 +1,6 @@
 package com.study.batch_sample.config;
 
+import com.study.batch_sample.support.jfr.JfrMyBatisInterceptor;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.mybatis.spring.SqlSessionFactoryBean;
 import org.mybatis.spring.annotation.MapperScan;
@@ -24,6 +25,8 @@ public class DataDBConfig {
     public SqlSessionFactory dataSqlSessionFactory(DataSource dataSource) throws Exception {
         SqlSessionFactoryBean factoryBean = new SqlSessionFactoryBean();
         factoryBean.setDataSource(dataSource);
+        // select 마다 JFR event (녹화 중이 아니면 비용 없음)
+        factoryBean.setPlugins(new JfrMyBatisInterceptor());
         return factoryBean.getObject();
     }
 }
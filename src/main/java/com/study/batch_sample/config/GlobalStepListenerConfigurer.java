@@ -0,0 +1,46 @@
+package com.study.batch_sample.config;
+
+import com.study.batch_sample.support.metrics.GlobalStepListener;
+import org.springframework.batch.core.ItemProcessListener;
+import org.springframework.batch.core.ItemReadListener;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.step.builder.SimpleStepBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * GlobalStepListener 중 Item*Listener 를 chunk step builder 에 등록한다.
+ * <pre>
+ *     globalStepListenerConfigurer.apply(new StepBuilder("step", jobRepository)
+ *             .&lt;Customer, Customer&gt;chunk(CHUNK_SIZE, transactionManager))
+ *             .reader(reader)
+ *             .writer(writer)
+ *             .build();
+ * </pre>
+ * StepExecutionListener / ChunkListener 는 GlobalStepListenerRegistrar 가 모든 step 에 붙이지만,
+ * item 단위 listener 는 build 된 step 에 추가하는 공개 API 가 없어서 builder 에서 등록해야 한다.
+ * 적용하지 않은 step 은 item 오류 지표와 read/process/write JFR event 가 빠진다.
+ */
+public class GlobalStepListenerConfigurer {
+
+    private final ObjectProvider<GlobalStepListener> listeners;
+
+    public GlobalStepListenerConfigurer(ObjectProvider<GlobalStepListener> listeners) {
+        this.listeners = listeners;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <I, O> SimpleStepBuilder<I, O> apply(SimpleStepBuilder<I, O> builder) {
+        listeners.orderedStream().forEach(listener -> {
+            if (listener instanceof ItemReadListener<?> readListener) {
+                builder.listener((ItemReadListener<? super I>) readListener);
+            }
+            if (listener instanceof ItemProcessListener<?, ?> processListener) {
+                builder.listener((ItemProcessListener<? super I, ? super O>) processListener);
+            }
+            if (listener instanceof ItemWriteListener<?> writeListener) {
+                builder.listener((ItemWriteListener<? super O>) writeListener);
+            }
+        });
+        return builder;
+    }
+}
@@ -0,0 +1,18 @@
+package com.study.batch_sample.config;
+
+import com.study.batch_sample.support.watermark.IncrementalExtractListener;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * export job 들이 같이 쓰는 증분 추출 listener. (job 마다 .listener(incrementalExtractListener) 로 붙인다)
+ */
+@Configuration
+public class IncrementalExtractConfig {
+
+    @Bean
+    public IncrementalExtractListener incrementalExtractListener(JobExplorer jobExplorer) {
+        return new IncrementalExtractListener(jobExplorer);
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -16,8 +17,13 @@ import lombok.Setter;
 @AllArgsConstructor
 public class Customer {
 
+    // id 를 allocationSize 개씩 예약한다. (hibernate.id.optimizer.pooled.preferred=pooled-lo)
+    // sequence 가 없는 MySQL 에서는 customer_seq 테이블로 흉내 낸다
+    public static final int ID_ALLOCATION_SIZE = 1000;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_id")
+    @SequenceGenerator(name = "customer_id", sequenceName = "customer_seq", allocationSize = ID_ALLOCATION_SIZE)
     private int id;
 
     private String name;
@@ -10,5 +10,11 @@ public interface CustomerMapper {
 
     List<Customer> selectCustomers();
 
+    List<Customer> selectCustomersAfter();
+
+    List<Customer> selectCustomersCursor();
+
     void insertCustomers();
+
+    int insertCustomersMultiRow(List<Customer> list);
 }
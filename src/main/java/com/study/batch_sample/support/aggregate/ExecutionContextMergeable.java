@@ -0,0 +1,16 @@
+package com.study.batch_sample.support.aggregate;
+
+import org.springframework.batch.item.ExecutionContext;
+
+import java.util.Collection;
+
+/**
+ * 파티션별 ExecutionContext 에 저장된 부분 결과를 하나로 합칠 수 있는 집계 컴포넌트.
+ */
+public interface ExecutionContextMergeable {
+
+    /**
+     * partials 의 값을 합쳐 target 에 같은 key 로 넣는다.
+     */
+    void merge(Collection<ExecutionContext> partials, ExecutionContext target);
+}
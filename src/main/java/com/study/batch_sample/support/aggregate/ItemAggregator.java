@@ -0,0 +1,222 @@
+package com.study.batch_sample.support.aggregate;
+
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamSupport;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * 쓰기에 성공한 item 들을 합계 / 최소 / 최대로 집계한다.
+ *
+ * - 값은 LongAdder / LongAccumulator 에 모으므로 multi-thread step 에서도 잃어버리는 값이 없다.
+ * - afterWrite 에서는 스레드별 임시값에만 더하고, update(커밋 직전) 에서 본값에 합친다.
+ *   chunk 가 롤백되면(beforeChunk / afterChunkError) 임시값은 버려진다.
+ * - update 마다 현재 값을 ExecutionContext 에 저장하므로 재시작해도 이어서 집계된다.
+ *
+ * step 에는 listener 와 stream 으로 모두 등록해야 한다.
+ * <pre>
+ *     .listener((ChunkListener) aggregator)   // ItemWriteListener 로도 함께 등록된다
+ *     .stream(aggregator)
+ * </pre>
+ * 파티션 step 에서는 @StepScope 로 파티션마다 만들고, manager step 에서 {@link MergingStepExecutionAggregator} 로 합친다.
+ */
+public class ItemAggregator<T> extends ItemStreamSupport implements ItemWriteListener<T>, ChunkListener, ExecutionContextMergeable {
+
+    private final Map<String, Metric<T>> metrics = new LinkedHashMap<>();
+
+    // 아직 커밋되지 않은 현재 chunk 의 값 (스레드별)
+    private final ThreadLocal<long[]> pending = new ThreadLocal<>();
+
+    public ItemAggregator() {
+        setName(ClassUtils.getShortName(ItemAggregator.class));
+    }
+
+    public ItemAggregator<T> count(String name) {
+        return sum(name, item -> 1L);
+    }
+
+    public ItemAggregator<T> sum(String name, ToLongFunction<? super T> valueExtractor) {
+        return add(new Metric<>(name, valueExtractor, Operation.SUM));
+    }
+
+    public ItemAggregator<T> min(String name, ToLongFunction<? super T> valueExtractor) {
+        return add(new Metric<>(name, valueExtractor, Operation.MIN));
+    }
+
+    public ItemAggregator<T> max(String name, ToLongFunction<? super T> valueExtractor) {
+        return add(new Metric<>(name, valueExtractor, Operation.MAX));
+    }
+
+    private ItemAggregator<T> add(Metric<T> metric) {
+        Assert.isTrue(!metrics.containsKey(metric.name), () -> "Duplicate metric: " + metric.name);
+        metrics.put(metric.name, metric);
+        return this;
+    }
+
+    /**
+     * 커밋된 값. 한 건도 없으면 min / max 는 각각 Long.MAX_VALUE / Long.MIN_VALUE 이다.
+     */
+    public long get(String name) {
+        Metric<T> metric = metrics.get(name);
+        Assert.notNull(metric, () -> "Unknown metric: " + name);
+        return metric.get();
+    }
+
+    public Map<String, Long> snapshot() {
+        Map<String, Long> snapshot = new LinkedHashMap<>();
+        metrics.forEach((name, metric) -> snapshot.put(name, metric.get()));
+        return snapshot;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        super.open(executionContext);
+        for (Metric<T> metric : metrics.values()) {
+            metric.reset();
+            String key = getExecutionContextKey(metric.name);
+            if (executionContext.containsKey(key)) {
+                metric.accumulate(((Number) executionContext.get(key)).longValue());
+            }
+        }
+        pending.remove();
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        super.update(executionContext);
+        // update 는 chunk 트랜잭션 커밋 직전에 호출된다
+        long[] values = pending.get();
+        if (values != null) {
+            int i = 0;
+            for (Metric<T> metric : metrics.values()) {
+                metric.accumulate(values[i++]);
+            }
+            pending.remove();
+        }
+        for (Metric<T> metric : metrics.values()) {
+            executionContext.putLong(getExecutionContextKey(metric.name), metric.get());
+        }
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        pending.remove();
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        pending.remove();
+    }
+
+    @Override
+    public void afterWrite(Chunk<? extends T> items) {
+        long[] values = pending.get();
+        if (values == null) {
+            values = identities();
+            pending.set(values);
+        }
+        for (T item : items) {
+            int i = 0;
+            for (Metric<T> metric : metrics.values()) {
+                values[i] = metric.operation.apply(values[i], metric.valueExtractor.applyAsLong(item));
+                i++;
+            }
+        }
+    }
+
+    @Override
+    public void merge(Collection<ExecutionContext> partials, ExecutionContext target) {
+        for (Metric<T> metric : metrics.values()) {
+            String key = getExecutionContextKey(metric.name);
+            long merged = metric.operation.identity;
+            boolean found = false;
+            for (ExecutionContext partial : partials) {
+                if (partial.containsKey(key)) {
+                    merged = metric.operation.apply(merged, ((Number) partial.get(key)).longValue());
+                    found = true;
+                }
+            }
+            if (found) {
+                target.putLong(key, merged);
+            }
+        }
+    }
+
+    private long[] identities() {
+        long[] values = new long[metrics.size()];
+        int i = 0;
+        for (Metric<T> metric : metrics.values()) {
+            values[i++] = metric.operation.identity;
+        }
+        return values;
+    }
+
+    private enum Operation {
+        SUM(0L),
+        MIN(Long.MAX_VALUE),
+        MAX(Long.MIN_VALUE);
+
+        private final long identity;
+
+        Operation(long identity) {
+            this.identity = identity;
+        }
+
+        long apply(long left, long right) {
+            return switch (this) {
+                case SUM -> left + right;
+                case MIN -> Math.min(left, right);
+                case MAX -> Math.max(left, right);
+            };
+        }
+    }
+
+    private static final class Metric<T> {
+
+        private final String name;
+        private final ToLongFunction<? super T> valueExtractor;
+        private final Operation operation;
+        private final LongAdder adder;
+        private final LongAccumulator accumulator;
+
+        private Metric(String name, ToLongFunction<? super T> valueExtractor, Operation operation) {
+            this.name = name;
+            this.valueExtractor = valueExtractor;
+            this.operation = operation;
+            this.adder = operation == Operation.SUM ? new LongAdder() : null;
+            this.accumulator = operation == Operation.SUM ? null : new LongAccumulator(operation::apply, operation.identity);
+        }
+
+        void accumulate(long value) {
+            if (adder != null) {
+                adder.add(value);
+            } else {
+                accumulator.accumulate(value);
+            }
+        }
+
+        long get() {
+            return adder != null ? adder.sum() : accumulator.get();
+        }
+
+        void reset() {
+            if (adder != null) {
+                adder.reset();
+            } else {
+                accumulator.reset();
+            }
+        }
+    }
+}
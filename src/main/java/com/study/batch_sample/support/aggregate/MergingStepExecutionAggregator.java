@@ -0,0 +1,35 @@
+package com.study.batch_sample.support.aggregate;
+
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.partition.support.DefaultStepExecutionAggregator;
+import org.springframework.batch.core.partition.support.StepExecutionAggregator;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 파티션 worker step 들의 집계 값(ItemAggregator, StreamingStatistics 등)을 manager step 의 ExecutionContext 로 합친다.
+ * 카운트(read/write/skip 등) 합산은 DefaultStepExecutionAggregator 에 맡긴다.
+ */
+public class MergingStepExecutionAggregator implements StepExecutionAggregator {
+
+    private final StepExecutionAggregator delegate = new DefaultStepExecutionAggregator();
+    private final List<ExecutionContextMergeable> mergeables;
+
+    public MergingStepExecutionAggregator(ExecutionContextMergeable... mergeables) {
+        this.mergeables = List.of(mergeables);
+    }
+
+    @Override
+    public void aggregate(StepExecution result, Collection<StepExecution> executions) {
+        delegate.aggregate(result, executions);
+
+        List<ExecutionContext> partials = executions.stream()
+                .map(StepExecution::getExecutionContext)
+                .toList();
+        for (ExecutionContextMergeable mergeable : mergeables) {
+            mergeable.merge(partials, result.getExecutionContext());
+        }
+    }
+}
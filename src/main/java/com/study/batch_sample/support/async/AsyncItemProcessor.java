@@ -0,0 +1,73 @@
+package com.study.batch_sample.support.async;
+
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+
+/**
+ * delegate.process() 를 TaskExecutor 에 넘기고 Future 를 바로 돌려준다.
+ * chunk 스레드는 다음 item 을 계속 읽어 제출하고, 결과는 {@link AsyncItemWriter} 가 순서대로 기다린다.
+ *
+ * 동시에 처리 중인 item 수는 window 로 제한한다. (window 가 차면 다음 제출은 하나가 끝날 때까지 기다린다)
+ * step scope bean 을 쓸 수 있도록 작업 스레드에도 현재 StepExecution 을 등록한다.
+ */
+public class AsyncItemProcessor<I, O> implements ItemProcessor<I, Future<O>> {
+
+    private final ItemProcessor<? super I, ? extends O> delegate;
+    private final TaskExecutor taskExecutor;
+    private final Semaphore window;
+
+    public AsyncItemProcessor(ItemProcessor<? super I, ? extends O> delegate, TaskExecutor taskExecutor, int windowSize) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("windowSize must be positive: " + windowSize);
+        }
+        this.delegate = delegate;
+        this.taskExecutor = taskExecutor;
+        this.window = new Semaphore(windowSize);
+    }
+
+    @Override
+    public Future<O> process(I item) {
+        StepExecution stepExecution = currentStepExecution();
+
+        FutureTask<O> task = new FutureTask<>(() -> {
+            if (stepExecution != null) {
+                StepSynchronizationManager.register(stepExecution);
+            }
+            try {
+                return delegate.process(item);
+            } finally {
+                if (stepExecution != null) {
+                    StepSynchronizationManager.close();
+                }
+                window.release();
+            }
+        });
+
+        try {
+            window.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataAccessResourceFailureException("Interrupted while waiting for an async processing slot", e);
+        }
+        try {
+            taskExecutor.execute(task);
+        } catch (RuntimeException e) {
+            window.release();
+            throw e;
+        }
+        return task;
+    }
+
+    private StepExecution currentStepExecution() {
+        StepContext context = StepSynchronizationManager.getContext();
+        return context == null ? null : context.getStepExecution();
+    }
+}
@@ -0,0 +1,74 @@
+package com.study.batch_sample.support.async;
+
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStream;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.batch.item.ItemWriter;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * {@link AsyncItemProcessor} 가 돌려준 Future 들을 chunk 순서대로 기다린 뒤 delegate 에 넘긴다.
+ *
+ * - process() 에서 난 예외는 원래 예외 그대로 다시 던진다. fault-tolerant step 이면 item 단위로 다시 write 하면서
+ *   해당 item 의 Future 가 다시 예외를 던지므로 skip / retry 정책이 그대로 적용된다.
+ * - process() 가 null 을 돌려준 item 은 건너뛴다. (filter, 단 filterCount 에는 집계되지 않는다)
+ */
+public class AsyncItemWriter<O> implements ItemStreamWriter<Future<O>> {
+
+    private final ItemWriter<O> delegate;
+
+    public AsyncItemWriter(ItemWriter<O> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void write(Chunk<? extends Future<O>> items) throws Exception {
+        Chunk<O> results = new Chunk<>();
+        for (Future<O> future : items) {
+            O result;
+            try {
+                result = future.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Exception exception) {
+                    throw exception;
+                }
+                if (cause instanceof Error error) {
+                    throw error;
+                }
+                throw e;
+            }
+            if (result != null) {
+                results.add(result);
+            }
+        }
+        if (!results.isEmpty()) {
+            delegate.write(results);
+        }
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        if (delegate instanceof ItemStream stream) {
+            stream.open(executionContext);
+        }
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        if (delegate instanceof ItemStream stream) {
+            stream.update(executionContext);
+        }
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        if (delegate instanceof ItemStream stream) {
+            stream.close();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.study.batch_sample.support.async;
+
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.core.task.TaskExecutor;
+
+import java.util.concurrent.Future;
+
+/**
+ * 기존 processor / writer 를 비동기 처리 단계로 묶는다. step 의 출력 타입만 Future&lt;O&gt; 로 바꾸면 된다.
+ * <pre>
+ *     AsyncProcessingStage&lt;Customer, Customer&gt; stage = new AsyncProcessingStage&lt;&gt;(processor, writer, taskExecutor, 8);
+ *
+ *     new StepBuilder("step", jobRepository)
+ *             .&lt;Customer, Future&lt;Customer&gt;&gt;chunk(CHUNK_SIZE, transactionManager)
+ *             .reader(reader)
+ *             .processor(stage.processor())
+ *             .writer(stage.writer())
+ *             .build();
+ * </pre>
+ */
+public class AsyncProcessingStage<I, O> {
+
+    private final AsyncItemProcessor<I, O> processor;
+    private final AsyncItemWriter<O> writer;
+
+    public AsyncProcessingStage(ItemProcessor<? super I, ? extends O> processor, ItemWriter<O> writer,
+                                TaskExecutor taskExecutor, int windowSize) {
+        this.processor = new AsyncItemProcessor<>(processor, taskExecutor, windowSize);
+        this.writer = new AsyncItemWriter<>(writer);
+    }
+
+    public ItemProcessor<I, Future<O>> processor() {
+        return processor;
+    }
+
+    public AsyncItemWriter<O> writer() {
+        return writer;
+    }
+}
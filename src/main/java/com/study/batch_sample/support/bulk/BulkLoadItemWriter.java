@@ -0,0 +1,271 @@
+package com.study.batch_sample.support.bulk;
+
+import com.mysql.cj.jdbc.JdbcStatement;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.IncorrectUpdateSemanticsDataAccessException;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.util.Assert;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * chunk 를 CSV 로 바꿔 DB 의 bulk load 경로로 넣는 writer.
+ *
+ * - MySQL : LOAD DATA LOCAL INFILE. 파일 대신 chunk 를 한 줄씩 CSV 로 만들어 주는 InputStream 을 드라이버에 넘긴다.
+ *           (JDBC URL 에 allowLoadLocalInfile=true 필요. 서버가 임의의 클라이언트 파일을 요청할 수 있게 되므로 이 writer 전용 풀에만 켠다)
+ * - H2    : chunk 를 임시 CSV 파일로 쓰고 INSERT INTO ... SELECT * FROM CSVREAD(...) 로 넣는다. (로컬 테스트용)
+ *
+ * 현재 chunk 트랜잭션에 묶인 커넥션을 쓰므로 step 의 트랜잭션 매니저는 같은 dataSource 의 것이어야 chunk 단위로 commit / rollback 된다.
+ * job repository 가 다른 DB(meta) 에 있으면 step ExecutionContext 가 chunk 보다 먼저 commit 되어, 그 사이에 죽으면 재시작 때 chunk 를 건너뛴다.
+ * 이 경우 reader 위치를 {@code DataSourceChunkCheckpoint} 로 같은 dataSource 에 함께 저장한다. (BulkLoadJobConfig)
+ * 적재된 row 수가 chunk 크기와 다르면 예외를 던진다. (LOCAL 로드는 중복 키, 형 변환 오류를 경고로 바꾸고 row 를 건너뛰므로 경고도 실패로 본다)
+ */
+@Slf4j
+public class BulkLoadItemWriter<T> implements ItemWriter<T> {
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    private final DataSource dataSource;
+    private final String table;
+    private final List<String> columns;
+    private final Function<? super T, Object[]> rowMapper;
+
+    private volatile Dialect dialect;
+
+    /**
+     * @param rowMapper item 을 columns 순서의 값 배열로 바꾼다
+     */
+    public BulkLoadItemWriter(DataSource dataSource, String table, List<String> columns, Function<? super T, Object[]> rowMapper) {
+        Assert.isTrue(IDENTIFIER.matcher(table).matches(), () -> "Invalid table name: " + table);
+        Assert.notEmpty(columns, "columns must not be empty");
+        columns.forEach(column -> Assert.isTrue(IDENTIFIER.matcher(column).matches(), () -> "Invalid column name: " + column));
+        this.dataSource = dataSource;
+        this.table = table;
+        this.columns = List.copyOf(columns);
+        this.rowMapper = rowMapper;
+    }
+
+    @Override
+    public void write(Chunk<? extends T> chunk) throws Exception {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            Dialect current = dialect(connection);
+            long loaded = switch (current) {
+                case MYSQL -> loadDataLocalInfile(connection, chunk);
+                case H2 -> insertFromCsvRead(connection, chunk);
+            };
+            if (loaded != chunk.size()) {
+                throw new IncorrectUpdateSemanticsDataAccessException(
+                        table + " : expected " + chunk.size() + " rows to be loaded but was " + loaded);
+            }
+            log.debug("{} : {} rows bulk loaded ({})", table, loaded, current);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private long loadDataLocalInfile(Connection connection, Chunk<? extends T> chunk) throws SQLException {
+        // 파일 이름은 쓰이지 않는다. 드라이버가 setLocalInfileInputStream 으로 넘긴 stream 을 서버로 보낸다
+        String sql = "LOAD DATA LOCAL INFILE 'chunk.csv' INTO TABLE " + table
+                + " CHARACTER SET utf8mb4"
+                + " FIELDS TERMINATED BY ',' OPTIONALLY ENCLOSED BY '\"' ESCAPED BY '\\\\'"
+                + " LINES TERMINATED BY '\\n'"
+                + " (" + String.join(", ", columns) + ")";
+
+        try (Statement statement = connection.createStatement()) {
+            statement.unwrap(JdbcStatement.class)
+                    .setLocalInfileInputStream(new CsvRowInputStream<>(chunk.iterator(), rowMapper, Dialect.MYSQL));
+            long loaded = statement.executeLargeUpdate(sql);
+
+            SQLWarning warning = statement.getWarnings();
+            if (warning != null) {
+                throw new IncorrectUpdateSemanticsDataAccessException(table + " : LOAD DATA reported warnings, first was: " + warning.getMessage());
+            }
+            return loaded;
+        }
+    }
+
+    private long insertFromCsvRead(Connection connection, Chunk<? extends T> chunk) throws SQLException {
+        Path file = writeTempFile(chunk);
+        try (Statement statement = connection.createStatement()) {
+            String columnList = String.join(",", columns);
+            // columns 를 넘기면 CSVREAD 는 첫 줄을 헤더로 읽지 않는다
+            String sql = "INSERT INTO " + table + " (" + columnList + ")"
+                    + " SELECT * FROM CSVREAD('" + file.toAbsolutePath().toString().replace("'", "''") + "', '" + columnList + "',"
+                    + " 'charset=UTF-8 fieldSeparator=,')";
+            return statement.executeLargeUpdate(sql);
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not delete temporary bulk load file {}", file, e);
+            }
+        }
+    }
+
+    private Path writeTempFile(Chunk<? extends T> chunk) {
+        try {
+            Path file = Files.createTempFile("bulk-load-" + table + "-", ".csv");
+            try (InputStream rows = new CsvRowInputStream<>(chunk.iterator(), rowMapper, Dialect.H2)) {
+                Files.copy(rows, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return file;
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Could not write temporary bulk load file for " + table, e);
+        }
+    }
+
+    private Dialect dialect(Connection connection) throws SQLException {
+        Dialect current = dialect;
+        if (current == null) {
+            String productName = connection.getMetaData().getDatabaseProductName();
+            current = switch (productName) {
+                case "MySQL" -> Dialect.MYSQL;
+                case "H2" -> Dialect.H2;
+                default -> throw new IllegalStateException("Bulk load is not supported for " + productName);
+            };
+            dialect = current;
+        }
+        return current;
+    }
+
+    enum Dialect {
+
+        /**
+         * FIELDS OPTIONALLY ENCLOSED BY '"' ESCAPED BY '\\', null 은 \N
+         */
+        MYSQL {
+            @Override
+            void appendField(StringBuilder line, Object value) {
+                if (value == null) {
+                    line.append("\\N");
+                    return;
+                }
+                if (value instanceof Number || value instanceof Boolean) {
+                    line.append(value);
+                    return;
+                }
+                line.append('"');
+                String text = value.toString();
+                for (int i = 0; i < text.length(); i++) {
+                    char c = text.charAt(i);
+                    switch (c) {
+                        case '\\' -> line.append("\\\\");
+                        case '"' -> line.append("\\\"");
+                        case '\n' -> line.append("\\n");
+                        case '\r' -> line.append("\\r");
+                        case '\0' -> line.append("\\0");
+                        default -> line.append(c);
+                    }
+                }
+                line.append('"');
+            }
+        },
+
+        /**
+         * CSVREAD 기본 형식: 따옴표 안의 " 는 "" 로 쓰고, 따옴표 없는 빈 값은 null
+         */
+        H2 {
+            @Override
+            void appendField(StringBuilder line, Object value) {
+                if (value == null) {
+                    return;
+                }
+                if (value instanceof Number || value instanceof Boolean) {
+                    line.append(value);
+                    return;
+                }
+                line.append('"').append(value.toString().replace("\"", "\"\"")).append('"');
+            }
+        };
+
+        abstract void appendField(StringBuilder line, Object value);
+    }
+
+    /**
+     * item 을 읽는 만큼만 CSV 한 줄씩 만들어 내보내는 InputStream. chunk 전체를 CSV 로 한 번에 만들어 두지 않는다.
+     */
+    static final class CsvRowInputStream<T> extends InputStream {
+
+        private final Iterator<? extends T> items;
+        private final Function<? super T, Object[]> rowMapper;
+        private final Dialect dialect;
+        private final StringBuilder line = new StringBuilder();
+
+        private byte[] buffer = new byte[0];
+        private int position;
+
+        CsvRowInputStream(Iterator<? extends T> items, Function<? super T, Object[]> rowMapper, Dialect dialect) {
+            this.items = items;
+            this.rowMapper = rowMapper;
+            this.dialect = dialect;
+        }
+
+        @Override
+        public int read() {
+            if (!fill()) {
+                return -1;
+            }
+            return buffer[position++] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.length - position);
+            System.arraycopy(buffer, position, b, off, n);
+            position += n;
+            return n;
+        }
+
+        private boolean fill() {
+            while (position >= buffer.length) {
+                if (!items.hasNext()) {
+                    return false;
+                }
+                buffer = encode(items.next());
+                position = 0;
+            }
+            return true;
+        }
+
+        private byte[] encode(T item) {
+            line.setLength(0);
+            Object[] values = rowMapper.apply(item);
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                dialect.appendField(line, values[i]);
+            }
+            line.append('\n');
+            return line.toString().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.study.batch_sample.support.checkpoint;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStream;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamSupport;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * chunk 트랜잭션(data DB) 과 job repository(meta DB) 가 다른 트랜잭션 매니저를 쓸 때 reader 위치를 data DB 에 함께 저장한다.
+ *
+ * TaskletStep 은 chunk 트랜잭션 안에서 stream.update 와 jobRepository.updateExecutionContext 를 호출하는데,
+ * job repository 는 자기 트랜잭션 매니저로 바로 commit 하므로 meta DB 가 data DB 보다 먼저 commit 된다.
+ * 그 사이에 죽거나 data DB commit 이 실패하면 meta 에는 다음 위치가 남고, 재시작하면 그 chunk 를 건너뛴다.
+ *
+ * - update : 대상 stream 들의 상태(숫자 값)를 chunk 트랜잭션의 커넥션으로 {@value #TABLE} 에 쓴다. 적재한 row 와 함께 commit / rollback 된다.
+ * - beforeStep : stream 이 open 되기 전에 대상 stream 의 ExecutionContext 값을 data DB 의 값으로 바꾼다.
+ *   data DB 에 없으면 (commit 된 chunk 가 없으면) 지우고 처음부터 읽게 한다.
+ * - afterStep : COMPLETED 면 저장한 값을 지운다.
+ *
+ * 따라서 재시작 위치는 항상 data DB 에 commit 된 마지막 chunk 다음이다. (chunk 를 건너뛰지도, 다시 적재하지도 않는다)
+ * step 의 chunk 트랜잭션 매니저는 dataSource 에 대한 DataSourceTransactionManager 여야 한다.
+ * StepExecution 의 read / write count 는 meta 기준이라 commit 되지 않은 chunk 가 포함될 수 있다.
+ * 값을 실행마다 필드에 두므로 한 step 에서만 쓴다. (partition / 동시 실행 X)
+ *
+ * step 에는 listener 와 stream 으로 모두 등록한다.
+ * <pre>
+ *     .listener((StepExecutionListener) checkpoint)
+ *     .stream(checkpoint)
+ * </pre>
+ */
+@Slf4j
+public class DataSourceChunkCheckpoint implements StepExecutionListener, ItemStream {
+
+    public static final String TABLE = "batch_chunk_checkpoint";
+
+    private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS " + TABLE + " ("
+            + "step_key VARCHAR(250) NOT NULL, "
+            + "entry_key VARCHAR(250) NOT NULL, "
+            + "entry_value BIGINT NOT NULL, "
+            + "PRIMARY KEY (step_key, entry_key))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final List<ItemStreamSupport> streams;
+
+    private volatile String stepKey;
+
+    /**
+     * @param dataSource chunk 트랜잭션 매니저의 DataSource
+     * @param streams    재시작 위치를 맞출 stream (reader 등). 이름(setName)으로 ExecutionContext 의 키를 구분한다
+     */
+    public DataSourceChunkCheckpoint(DataSource dataSource, ItemStreamSupport... streams) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.streams = List.of(streams);
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        jdbcTemplate.execute(CREATE_TABLE);
+        stepKey = stepExecution.getJobExecution().getJobInstance().getJobName()
+                + "." + stepExecution.getJobExecution().getJobInstance().getInstanceId()
+                + "." + stepExecution.getStepName();
+
+        Map<String, Long> committed = new HashMap<>();
+        jdbcTemplate.query("SELECT entry_key, entry_value FROM " + TABLE + " WHERE step_key = ?",
+                resultSet -> {
+                    committed.put(resultSet.getString("entry_key"), resultSet.getLong("entry_value"));
+                }, stepKey);
+
+        ExecutionContext executionContext = stepExecution.getExecutionContext();
+        List<String> stale = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : executionContext.entrySet()) {
+            Long value = committed.get(entry.getKey());
+            if (isTarget(entry.getKey()) && (value == null || !(entry.getValue() instanceof Number number) || number.longValue() != value)) {
+                stale.add(entry.getKey());
+            }
+        }
+        if (!stale.isEmpty()) {
+            log.warn("{} : meta ExecutionContext is ahead of the data DB for {}, restarting from the last committed chunk {}",
+                    stepKey, stale, committed);
+        }
+        stale.forEach(executionContext::remove);
+        committed.forEach(executionContext::putLong);
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        // chunk 밖(open 직후)의 update 는 beforeStep 에서 맞춘 위치 그대로이므로 쓰지 않는다
+        if (stepKey == null || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+        // step 에 등록된 stream 의 update 순서와 상관없이 지금 위치를 얻으려고 별도 context 에 한 번 더 받는다
+        ExecutionContext current = new ExecutionContext();
+        streams.forEach(stream -> stream.update(current));
+
+        List<Object[]> rows = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : current.entrySet()) {
+            if (!(entry.getValue() instanceof Number value)) {
+                throw new ItemStreamException("Only numeric state can be checkpointed: " + entry.getKey() + "=" + entry.getValue());
+            }
+            rows.add(new Object[]{stepKey, entry.getKey(), value.longValue()});
+        }
+
+        // chunk 트랜잭션에 묶인 커넥션으로 실행된다
+        jdbcTemplate.update("DELETE FROM " + TABLE + " WHERE step_key = ?", stepKey);
+        jdbcTemplate.batchUpdate("INSERT INTO " + TABLE + " (step_key, entry_key, entry_value) VALUES (?, ?, ?)", rows);
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        if (stepKey != null && stepExecution.getStatus() == BatchStatus.COMPLETED) {
+            jdbcTemplate.update("DELETE FROM " + TABLE + " WHERE step_key = ?", stepKey);
+        }
+        stepKey = null;
+        return null;
+    }
+
+    private boolean isTarget(String key) {
+        for (ItemStreamSupport stream : streams) {
+            if (key.startsWith(stream.getExecutionContextKey(""))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,147 @@
+package com.study.batch_sample.support.chunk;
+
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.repeat.policy.SimpleCompletionPolicy;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+
+/**
+ * chunk 하나(read ~ commit)에 걸린 시간을 재서 다음 chunk 크기를 조절하는 CompletionPolicy.
+ * <pre>
+ *     AdaptiveChunkSizePolicy policy = new AdaptiveChunkSizePolicy(100, 10, 5000, Duration.ofMillis(500));
+ *
+ *     new StepBuilder("step", jobRepository)
+ *             .&lt;Customer, Customer&gt;chunk(policy, transactionManager)
+ *             .reader(reader)
+ *             .writer(writer)
+ *             .listener(policy)
+ *             .build();
+ * </pre>
+ * - 목표 시간보다 많이 빠르면 키우고(최대 2배), 많이 느리면 목표 시간에 맞게 줄인다. 항상 [min, max] 안에서 움직인다.
+ * - 키웠는데 처리량(items/sec)이 오히려 떨어졌으면 이전 크기로 되돌린다. (락 경합, 큰 트랜잭션 비용)
+ * - chunk 가 실패(롤백)하면 절반으로 줄인다.
+ * - 현재 크기는 step ExecutionContext 에 저장되어 재시작 시 이어서 쓰고, Micrometer 에도 기록한다.
+ *
+ * single-thread step 용이다. (multi-threaded step 에서는 chunk 마다의 시간을 구분할 수 없다)
+ */
+@Slf4j
+public class AdaptiveChunkSizePolicy extends SimpleCompletionPolicy implements ChunkListener {
+
+    public static final String CHUNK_SIZE_KEY = "adaptive.chunk.size";
+    public static final String ADJUSTMENTS_KEY = "adaptive.chunk.adjustments";
+
+    private static final String SIZE_METRIC = "spring.batch.chunk.adaptive.size";
+    private static final String ADJUSTMENT_METRIC = "spring.batch.chunk.adaptive.adjustment";
+
+    // 목표 대비 이 비율 밖으로 벗어났을 때만 크기를 바꾼다
+    private static final double TOLERANCE = 0.25;
+    private static final double THROUGHPUT_DROP = 0.9;
+
+    private final int minChunkSize;
+    private final int maxChunkSize;
+    private final long targetNanos;
+
+    private Long stepExecutionId;
+    private long chunkStartNanos;
+    private long readCountAtStart;
+    private long adjustments;
+
+    // 직전에 키우기 전의 크기와 그때의 처리량
+    private int previousSize;
+    private double previousThroughput;
+
+    public AdaptiveChunkSizePolicy(int initialChunkSize, int minChunkSize, int maxChunkSize, Duration targetCommitLatency) {
+        super(initialChunkSize);
+        Assert.isTrue(minChunkSize > 0 && minChunkSize <= maxChunkSize, "minChunkSize must be positive and not greater than maxChunkSize");
+        Assert.isTrue(initialChunkSize >= minChunkSize && initialChunkSize <= maxChunkSize, "initialChunkSize must be between minChunkSize and maxChunkSize");
+        Assert.isTrue(!targetCommitLatency.isNegative() && !targetCommitLatency.isZero(), "targetCommitLatency must be positive");
+        this.minChunkSize = minChunkSize;
+        this.maxChunkSize = maxChunkSize;
+        this.targetNanos = targetCommitLatency.toNanos();
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        StepExecution stepExecution = context.getStepContext().getStepExecution();
+        if (!stepExecution.getId().equals(stepExecutionId)) {
+            restore(stepExecution);
+        }
+        readCountAtStart = stepExecution.getReadCount();
+        chunkStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        StepExecution stepExecution = context.getStepContext().getStepExecution();
+        long elapsed = System.nanoTime() - chunkStartNanos;
+        long items = stepExecution.getReadCount() - readCountAtStart;
+        int size = getChunkSize();
+
+        // 마지막(덜 찬) chunk 나 빈 chunk 로는 판단하지 않는다
+        if (items < size || elapsed <= 0) {
+            return;
+        }
+
+        double throughput = items * 1_000_000_000d / elapsed;
+        int next = size;
+        String reason = null;
+
+        if (previousSize > 0 && size > previousSize && throughput < previousThroughput * THROUGHPUT_DROP) {
+            next = previousSize;
+            reason = "throughput dropped";
+        } else if (elapsed > targetNanos * (1 + TOLERANCE)) {
+            next = (int) Math.max(minChunkSize, Math.min(size - 1, size * (double) targetNanos / elapsed));
+            reason = "slower than target";
+        } else if (elapsed < targetNanos * (1 - TOLERANCE)) {
+            next = (int) Math.min(maxChunkSize, Math.max(size + 1, size * Math.min(2.0, (double) targetNanos / elapsed)));
+            reason = "faster than target";
+        }
+
+        if (next > size) {
+            previousSize = size;
+            previousThroughput = throughput;
+        } else if (next < size) {
+            previousSize = 0;
+        }
+        resize(stepExecution, next, reason, elapsed, throughput);
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        StepExecution stepExecution = context.getStepContext().getStepExecution();
+        previousSize = 0;
+        resize(stepExecution, Math.max(minChunkSize, getChunkSize() / 2), "chunk failed", System.nanoTime() - chunkStartNanos, 0);
+    }
+
+    private void resize(StepExecution stepExecution, int next, String reason, long elapsed, double throughput) {
+        int size = getChunkSize();
+        next = Math.max(minChunkSize, Math.min(maxChunkSize, next));
+        if (next != size) {
+            adjustments++;
+            log.info("[{}] chunk size {} -> {} ({}, {} ms, {} items/s)",
+                    stepExecution.getStepName(), size, next, reason, elapsed / 1_000_000, Math.round(throughput));
+            Metrics.counter(ADJUSTMENT_METRIC,
+                    "step.name", stepExecution.getStepName(),
+                    "direction", next > size ? "up" : "down").increment();
+            setChunkSize(next);
+        }
+        Metrics.summary(SIZE_METRIC, "step.name", stepExecution.getStepName()).record(next);
+        stepExecution.getExecutionContext().putInt(CHUNK_SIZE_KEY, next);
+        stepExecution.getExecutionContext().putLong(ADJUSTMENTS_KEY, adjustments);
+    }
+
+    private void restore(StepExecution stepExecution) {
+        stepExecutionId = stepExecution.getId();
+        adjustments = 0;
+        previousSize = 0;
+        if (stepExecution.getExecutionContext().containsKey(CHUNK_SIZE_KEY)) {
+            int restored = ((Number) stepExecution.getExecutionContext().get(CHUNK_SIZE_KEY)).intValue();
+            setChunkSize(Math.max(minChunkSize, Math.min(maxChunkSize, restored)));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.study.batch_sample.support.chunk;
+
+import org.springframework.batch.core.ItemReadListener;
+import org.springframework.batch.repeat.RepeatContext;
+import org.springframework.batch.repeat.context.RepeatContextSupport;
+import org.springframework.batch.repeat.policy.CompletionPolicySupport;
+import org.springframework.util.Assert;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * item 개수(maxItems) 또는 읽은 item 의 추정 크기 합(maxBytes) 중 먼저 닿는 쪽에서 chunk 를 닫는다.
+ * 아주 큰 row 가 섞여 있어도 chunk 하나가 잡는 메모리가 maxBytes 근처를 넘지 않는다.
+ * <pre>
+ *     ByteBudgetCompletionPolicy&lt;Customer&gt; policy =
+ *             new ByteBudgetCompletionPolicy&lt;&gt;(100, 8 * 1024 * 1024, ItemSizeEstimators::customer);
+ *
+ *     new StepBuilder("step", jobRepository)
+ *             .&lt;Customer, Customer&gt;chunk(policy, transactionManager)
+ *             .reader(reader)
+ *             .writer(writer)
+ *             .listener(policy)   // afterRead 에서 크기를 더한다
+ *             .build();
+ * </pre>
+ * chunk 의 첫 item 은 크기와 상관없이 항상 받는다.
+ */
+public class ByteBudgetCompletionPolicy<T> extends CompletionPolicySupport implements ItemReadListener<T> {
+
+    private final int maxItems;
+    private final long maxBytes;
+    private final ToLongFunction<? super T> sizeEstimator;
+
+    // 현재 스레드에서 진행 중인 chunk 의 context (afterRead 에서 찾기 위해)
+    private final ThreadLocal<BudgetContext> current = new ThreadLocal<>();
+
+    public ByteBudgetCompletionPolicy(int maxItems, long maxBytes, ToLongFunction<? super T> sizeEstimator) {
+        Assert.isTrue(maxItems > 0, "maxItems must be positive");
+        Assert.isTrue(maxBytes > 0, "maxBytes must be positive");
+        Assert.notNull(sizeEstimator, "sizeEstimator is required");
+        this.maxItems = maxItems;
+        this.maxBytes = maxBytes;
+        this.sizeEstimator = sizeEstimator;
+    }
+
+    @Override
+    public RepeatContext start(RepeatContext parent) {
+        BudgetContext context = new BudgetContext(parent);
+        current.set(context);
+        return context;
+    }
+
+    @Override
+    public void update(RepeatContext context) {
+        if (context instanceof BudgetContext budget) {
+            budget.increment();
+        }
+    }
+
+    @Override
+    public boolean isComplete(RepeatContext context) {
+        BudgetContext budget = (BudgetContext) context;
+        boolean complete = budget.getStartedCount() >= maxItems || budget.bytes >= maxBytes;
+        if (complete) {
+            current.remove();
+        }
+        return complete;
+    }
+
+    @Override
+    public void afterRead(T item) {
+        BudgetContext context = current.get();
+        if (context != null) {
+            context.bytes += sizeEstimator.applyAsLong(item);
+        }
+    }
+
+    private static class BudgetContext extends RepeatContextSupport {
+
+        private long bytes;
+
+        BudgetContext(RepeatContext parent) {
+            super(parent);
+        }
+    }
+}
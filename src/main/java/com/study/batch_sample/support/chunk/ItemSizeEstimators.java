@@ -0,0 +1,49 @@
+package com.study.batch_sample.support.chunk;
+
+import com.study.batch_sample.common.Customer;
+import com.study.batch_sample.common.User;
+
+/**
+ * ByteBudgetCompletionPolicy 에 넘길 item 별 heap 사용량 추정치. (64bit JVM, compressed oops 기준의 대략적인 값)
+ * 정확할 필요는 없고, 폭이 큰 row 를 구분할 수 있으면 된다.
+ */
+public final class ItemSizeEstimators {
+
+    private static final long OBJECT_HEADER = 16;
+    private static final long REFERENCE = 4;
+    // String 객체 + byte[] 헤더
+    private static final long STRING_OVERHEAD = 24 + 16;
+
+    private ItemSizeEstimators() {
+    }
+
+    public static long customer(Customer customer) {
+        return OBJECT_HEADER + 4 + 4 + 2 * REFERENCE
+                + string(customer.getName())
+                + string(customer.getGender());
+    }
+
+    public static long user(User user) {
+        // Long id, LocalDate lastUpdate 는 각각 작은 고정 크기 객체
+        return OBJECT_HEADER + 3 * REFERENCE
+                + 16 + 24
+                + string(user.getName());
+    }
+
+    /**
+     * Latin-1 이면 문자당 1byte, 아니면 2byte (compact strings)
+     */
+    public static long string(String value) {
+        if (value == null) {
+            return 0;
+        }
+        long bytes = value.length();
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                bytes = 2L * value.length();
+                break;
+            }
+        }
+        return STRING_OVERHEAD + bytes;
+    }
+}
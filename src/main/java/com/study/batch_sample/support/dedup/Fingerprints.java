@@ -0,0 +1,27 @@
+package com.study.batch_sample.support.dedup;
+
+import com.study.batch_sample.common.Customer;
+import com.study.batch_sample.support.stats.Hashing;
+
+/**
+ * ChangeSkippingItemWriter 에 넘길 row 내용의 64bit fingerprint.
+ * 비교 대상 컬럼을 모두 넣는다. (하나라도 바뀌면 다른 값이 되어야 한다)
+ */
+public final class Fingerprints {
+
+    // null 과 빈 문자열을 구분한다
+    private static final long NULL_HASH = 0x9e3779b97f4a7c15L;
+
+    private Fingerprints() {
+    }
+
+    public static long customer(Customer customer) {
+        long hash = string(customer.getName());
+        hash = Hashing.combine(hash, customer.getAge());
+        return Hashing.combine(hash, string(customer.getGender()));
+    }
+
+    public static long string(String value) {
+        return value == null ? NULL_HASH : Hashing.hash64(value);
+    }
+}
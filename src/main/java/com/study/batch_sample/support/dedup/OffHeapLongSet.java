@@ -0,0 +1,127 @@
+package com.study.batch_sample.support.dedup;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+/**
+ * long 값의 집합을 heap 밖(direct ByteBuffer)에 두는 open addressing hash set.
+ * 수백만 건의 fingerprint 를 long 8byte + 여유 공간만으로 들고 있고, GC 가 훑을 객체를 만들지 않는다.
+ *
+ * - 값은 이미 고르게 섞인 해시라고 보고 하위 비트로 슬롯을 고른다. (linear probing)
+ * - 0 은 빈 슬롯 표시로 쓰므로 따로 플래그로 관리한다.
+ * - 채움 비율이 MAX_LOAD 를 넘으면 두 배 크기로 옮긴다. 삭제는 지원하지 않는다.
+ *
+ * 모든 메서드는 synchronized 다. (multi-threaded step 의 writer 에서 함께 쓴다)
+ * 메모리는 참조가 사라진 뒤 GC 가 direct buffer 를 정리할 때 반환된다.
+ */
+public class OffHeapLongSet {
+
+    private static final double MAX_LOAD = 0.6;
+    private static final int MIN_CAPACITY = 1 << 10;
+    // direct ByteBuffer 하나의 최대 크기(2GB) 안에 들어가는 슬롯 수
+    private static final int MAX_CAPACITY = 1 << 28;
+
+    private LongBuffer slots;
+    private int mask;
+    private int size;
+    private boolean containsZero;
+
+    public OffHeapLongSet(long expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    public synchronized boolean add(long value) {
+        if (value == 0) {
+            boolean added = !containsZero;
+            containsZero = true;
+            return added;
+        }
+        if (size + 1 > (slots.capacity() * MAX_LOAD)) {
+            grow();
+        }
+        if (insert(slots, mask, value)) {
+            size++;
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized boolean contains(long value) {
+        if (value == 0) {
+            return containsZero;
+        }
+        int index = index(value, mask);
+        while (true) {
+            long slot = slots.get(index);
+            if (slot == value) {
+                return true;
+            }
+            if (slot == 0) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    public synchronized long size() {
+        return size + (containsZero ? 1 : 0);
+    }
+
+    public synchronized long memoryBytes() {
+        return (long) slots.capacity() * Long.BYTES;
+    }
+
+    private void grow() {
+        int capacity = slots.capacity();
+        if (capacity >= MAX_CAPACITY) {
+            throw new IllegalStateException("OffHeapLongSet is full: " + size + " values");
+        }
+        LongBuffer previous = slots;
+        allocate(capacity << 1);
+        for (int i = 0; i < previous.capacity(); i++) {
+            long value = previous.get(i);
+            if (value != 0) {
+                insert(slots, mask, value);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        slots = ByteBuffer.allocateDirect(capacity * Long.BYTES)
+                .order(ByteOrder.nativeOrder())
+                .asLongBuffer();
+        mask = capacity - 1;
+    }
+
+    private static boolean insert(LongBuffer slots, int mask, long value) {
+        int index = index(value, mask);
+        while (true) {
+            long slot = slots.get(index);
+            if (slot == value) {
+                return false;
+            }
+            if (slot == 0) {
+                slots.put(index, value);
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    private static int index(long value, int mask) {
+        return (int) (value ^ (value >>> 32)) & mask;
+    }
+
+    private static int capacityFor(long expectedSize) {
+        long needed = (long) Math.ceil(expectedSize / MAX_LOAD) + 1;
+        if (needed > MAX_CAPACITY) {
+            throw new IllegalArgumentException("expectedSize too large for OffHeapLongSet: " + expectedSize);
+        }
+        int capacity = MIN_CAPACITY;
+        while (capacity < needed) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
@@ -0,0 +1,173 @@
+package com.study.batch_sample.support.file;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * 매핑된 버퍼 위의 한 줄을 가리키는 재사용 레코드.
+ * 필드는 시작/끝 위치로만 들고 있고, String 은 getString 을 호출한 필드에 대해서만 만든다.
+ */
+public class CsvRecord {
+
+    private static final byte QUOTE = '"';
+
+    private ByteBuffer buffer;
+    private int[] starts = new int[8];
+    private int[] ends = new int[8];
+    private boolean[] quoted = new boolean[8];
+    private int fieldCount;
+    private byte[] scratch = new byte[256];
+
+    void tokenize(ByteBuffer buffer, int lineStart, int lineEnd, byte delimiter) {
+        this.buffer = buffer;
+        this.fieldCount = 0;
+
+        int index = lineStart;
+        while (true) {
+            ensureCapacity(fieldCount + 1);
+            if (index < lineEnd && buffer.get(index) == QUOTE) {
+                // "..." 필드 : "" 는 이스케이프된 따옴표
+                int start = index + 1;
+                int cursor = start;
+                while (cursor < lineEnd) {
+                    if (buffer.get(cursor) == QUOTE) {
+                        if (cursor + 1 < lineEnd && buffer.get(cursor + 1) == QUOTE) {
+                            cursor += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    cursor++;
+                }
+                starts[fieldCount] = start;
+                ends[fieldCount] = cursor;
+                quoted[fieldCount] = true;
+                index = cursor + 1;
+                while (index < lineEnd && buffer.get(index) != delimiter) {
+                    index++;
+                }
+            } else {
+                int start = index;
+                while (index < lineEnd && buffer.get(index) != delimiter) {
+                    index++;
+                }
+                starts[fieldCount] = start;
+                ends[fieldCount] = index;
+                quoted[fieldCount] = false;
+            }
+            fieldCount++;
+
+            if (index >= lineEnd) {
+                return;
+            }
+            index++; // delimiter
+        }
+    }
+
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    public boolean isEmpty(int index) {
+        checkIndex(index);
+        return starts[index] == ends[index];
+    }
+
+    public String getString(int index) {
+        checkIndex(index);
+        int length = ends[index] - starts[index];
+        if (length == 0) {
+            return "";
+        }
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(starts[index], scratch, 0, length);
+        String value = new String(scratch, 0, length, StandardCharsets.UTF_8);
+        return quoted[index] ? value.replace("\"\"", "\"") : value;
+    }
+
+    public int getInt(int index) {
+        long value = getLong(index);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Value out of int range: " + value);
+        }
+        return (int) value;
+    }
+
+    public long getLong(int index) {
+        checkIndex(index);
+        int start = starts[index];
+        int end = ends[index];
+        while (start < end && buffer.get(start) == ' ') {
+            start++;
+        }
+        while (end > start && buffer.get(end - 1) == ' ') {
+            end--;
+        }
+        if (start == end) {
+            throw new NumberFormatException("Empty numeric field at index " + index);
+        }
+
+        boolean negative = false;
+        byte first = buffer.get(start);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            start++;
+        }
+        if (start == end) {
+            throw new NumberFormatException("Invalid numeric field at index " + index);
+        }
+
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("Invalid numeric field at index " + index + ": " + getString(index));
+            }
+            value = Math.addExact(Math.multiplyExact(value, 10), digit);
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * yyyy-MM-dd 형식의 날짜를 바이트에서 바로 읽는다.
+     */
+    public LocalDate getDate(int index) {
+        checkIndex(index);
+        int start = starts[index];
+        if (ends[index] - start != 10 || buffer.get(start + 4) != '-' || buffer.get(start + 7) != '-') {
+            throw new IllegalArgumentException("Expected yyyy-MM-dd at index " + index + ": " + getString(index));
+        }
+        return LocalDate.of(digits(start, 4), digits(start + 5, 2), digits(start + 8, 2));
+    }
+
+    private int digits(int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("Invalid digit in date field");
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= fieldCount) {
+            throw new IndexOutOfBoundsException("Field index " + index + " out of " + fieldCount + " fields");
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (starts.length < capacity) {
+            int newLength = starts.length * 2;
+            starts = Arrays.copyOf(starts, newLength);
+            ends = Arrays.copyOf(ends, newLength);
+            quoted = Arrays.copyOf(quoted, newLength);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.study.batch_sample.support.file;
+
+@FunctionalInterface
+public interface CsvRecordMapper<T> {
+
+    T mapRecord(CsvRecord record) throws Exception;
+}
@@ -0,0 +1,18 @@
+package com.study.batch_sample.support.file;
+
+import com.study.batch_sample.common.Customer;
+
+/**
+ * name,age,gender
+ */
+public class CustomerCsvRecordMapper implements CsvRecordMapper<Customer> {
+
+    @Override
+    public Customer mapRecord(CsvRecord record) {
+        Customer customer = new Customer();
+        customer.setName(record.getString(0));
+        customer.setAge(record.getInt(1));
+        customer.setGender(record.getString(2));
+        return customer;
+    }
+}
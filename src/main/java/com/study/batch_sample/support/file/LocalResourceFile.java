@@ -0,0 +1,64 @@
+package com.study.batch_sample.support.file;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * FileChannel / 메모리 매핑으로 읽을 수 있는 로컬 파일 경로.
+ * 파일 시스템에 있는 resource 는 그 경로를 그대로 쓰고,
+ * jar 안의 classpath resource 처럼 파일이 아닌 resource 는 임시 파일로 복사한 뒤 close 에서 지운다.
+ * 내용이 같으므로 바이트 위치(재시작 offset, 파티션 범위)는 원본과 같다.
+ */
+@Slf4j
+public final class LocalResourceFile implements Closeable {
+
+    private final Path path;
+    private final boolean temporary;
+
+    private LocalResourceFile(Path path, boolean temporary) {
+        this.path = path;
+        this.temporary = temporary;
+    }
+
+    public static LocalResourceFile of(Resource resource) throws IOException {
+        if (resource.isFile()) {
+            return new LocalResourceFile(resource.getFile().toPath(), false);
+        }
+
+        String filename = resource.getFilename();
+        Path copy = Files.createTempFile("batch-", "-" + (filename == null ? "resource" : filename));
+        try (InputStream inputStream = resource.getInputStream()) {
+            Files.copy(inputStream, copy, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(copy);
+            throw e;
+        }
+        log.info("{} is not a file, copied to {} ({} bytes)", resource, copy, Files.size(copy));
+        return new LocalResourceFile(copy, true);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public void close() {
+        if (!temporary) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // Windows 에서는 아직 GC 되지 않은 매핑이 있으면 지울 수 없다
+            log.warn("Failed to delete {}, will retry on exit", path, e);
+            path.toFile().deleteOnExit();
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.study.batch_sample.support.file;
+
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemStreamSupport;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 파일을 메모리 매핑해서 UTF-8 바이트 위에서 바로 토큰을 나누는 CSV reader.
+ * BufferedReader -> String -> FieldSet -> BeanWrapper 를 거치지 않고, CsvRecordMapper 가 필요한 필드만 꺼낸다.
+ * 재시작을 위해 다음에 읽을 바이트 위치를 ExecutionContext 에 저장한다.
+ * startOffset / endOffset 을 주면 시작 위치가 그 범위 안에 있는 줄만 읽는다. (파일 분할 파티션용)
+ *
+ * 파일이 아닌 resource (jar 안의 classpath resource 등) 는 open 에서 임시 파일로 복사해서 읽는다. ({@link LocalResourceFile})
+ *
+ * 다음 window 로 넘어갈 때 이전 window 는 참조만 끊는다. Java 17 에는 매핑을 바로 해제하는 공개 API 가 없어서
+ * 이전 매핑은 MappedByteBuffer 가 GC 될 때 풀린다. 매핑은 heap 이 아니라 가상 주소 공간과 page cache 를 쓰므로
+ * 순차로 읽는 동안 남는 매핑은 최대 fileSize / windowSize 개 정도다.
+ * windowSize 를 아주 작게 잡으면 vm.max_map_count (기본 65530) 에 걸릴 수 있고,
+ * Windows 에서는 매핑이 풀릴 때까지 파일을 지우거나 바꿀 수 없다.
+ */
+public class MappedCsvItemReader<T> extends ItemStreamSupport implements ItemStreamReader<T> {
+
+    private static final String OFFSET = "offset";
+    private static final String READ_COUNT = "read.count";
+    private static final byte LF = '\n';
+    private static final byte CR = '\r';
+
+    private final Resource resource;
+    private final CsvRecordMapper<T> recordMapper;
+    private final CsvRecord record = new CsvRecord();
+
+    private byte delimiter = ',';
+    private int linesToSkip = 0;
+    private long startOffset = 0;
+    private long endOffset = Long.MAX_VALUE;
+    private int windowSize = 64 * 1024 * 1024;
+    private boolean saveState = true;
+
+    private LocalResourceFile file;
+    private FileChannel channel;
+    private long fileSize;
+    private long limit;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private int currentWindowSize;
+
+    private long position;
+    private long readCount;
+
+    public MappedCsvItemReader(Resource resource, CsvRecordMapper<T> recordMapper) {
+        this.resource = resource;
+        this.recordMapper = recordMapper;
+    }
+
+    public void setDelimiter(char delimiter) {
+        this.delimiter = (byte) delimiter;
+    }
+
+    public void setLinesToSkip(int linesToSkip) {
+        this.linesToSkip = linesToSkip;
+    }
+
+    public void setStartOffset(long startOffset) {
+        this.startOffset = startOffset;
+    }
+
+    public void setEndOffset(long endOffset) {
+        this.endOffset = endOffset;
+    }
+
+    public void setWindowSize(int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    public void setSaveState(boolean saveState) {
+        this.saveState = saveState;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        super.open(executionContext);
+        try {
+            file = LocalResourceFile.of(resource);
+            channel = FileChannel.open(file.getPath(), StandardOpenOption.READ);
+            fileSize = channel.size();
+        } catch (IOException e) {
+            closeFile();
+            throw new ItemStreamException("Failed to open " + resource, e);
+        }
+        limit = Math.min(endOffset, fileSize);
+        currentWindowSize = windowSize;
+        window = null;
+        readCount = 0;
+
+        if (saveState && executionContext.containsKey(getExecutionContextKey(OFFSET))) {
+            position = executionContext.getLong(getExecutionContextKey(OFFSET));
+            readCount = executionContext.getLong(getExecutionContextKey(READ_COUNT), 0L);
+            return;
+        }
+
+        position = startOffset;
+        try {
+            for (int i = 0; i < linesToSkip && position < fileSize; i++) {
+                position = nextLineStart(lineEnd(position));
+            }
+        } catch (IOException e) {
+            throw new ItemStreamException("Failed to skip lines in " + resource, e);
+        }
+    }
+
+    @Override
+    public T read() throws Exception {
+        while (position < limit) {
+            long lineStart = position;
+            long lineEnd = lineEnd(lineStart);
+            position = nextLineStart(lineEnd);
+
+            long contentEnd = lineEnd;
+            if (contentEnd > lineStart && byteAt(contentEnd - 1) == CR) {
+                contentEnd--;
+            }
+            if (contentEnd == lineStart) {
+                continue; // 빈 줄
+            }
+
+            readCount++;
+            record.tokenize(window, (int) (lineStart - windowStart), (int) (contentEnd - windowStart), delimiter);
+            try {
+                return recordMapper.mapRecord(record);
+            } catch (Exception e) {
+                String line = readLine(lineStart, contentEnd);
+                throw new FlatFileParseException("Parsing error at byte offset " + lineStart + " in " + resource + ", input=[" + line + "]",
+                        e, line, (int) readCount);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        super.update(executionContext);
+        if (saveState) {
+            executionContext.putLong(getExecutionContextKey(OFFSET), position);
+            executionContext.putLong(getExecutionContextKey(READ_COUNT), readCount);
+        }
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        super.close();
+        window = null;
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new ItemStreamException("Failed to close " + resource, e);
+            } finally {
+                channel = null;
+                closeFile();
+            }
+        }
+    }
+
+    private void closeFile() {
+        if (file != null) {
+            file.close();
+            file = null;
+        }
+    }
+
+    /**
+     * lineStart 에서 시작하는 줄의 끝('\n' 위치 또는 파일 끝)을 찾는다.
+     * 찾는 동안 줄 전체가 window 안에 들어오도록 다시 매핑한다.
+     */
+    private long lineEnd(long lineStart) throws IOException {
+        ensureMapped(lineStart);
+        while (true) {
+            int from = (int) (lineStart - windowStart);
+            int to = window.limit();
+            for (int i = from; i < to; i++) {
+                if (window.get(i) == LF) {
+                    return windowStart + i;
+                }
+            }
+
+            long windowEnd = windowStart + to;
+            if (windowEnd >= fileSize) {
+                return fileSize;
+            }
+            // 줄이 window 경계에 걸렸으면 줄 시작부터 다시 매핑하고, 그래도 모자라면 window 를 키운다
+            if (windowStart == lineStart) {
+                currentWindowSize = (int) Math.min((long) currentWindowSize * 2, Integer.MAX_VALUE - 8);
+            }
+            map(lineStart);
+        }
+    }
+
+    private long nextLineStart(long lineEnd) {
+        return lineEnd >= fileSize ? fileSize : lineEnd + 1;
+    }
+
+    private byte byteAt(long offset) {
+        return window.get((int) (offset - windowStart));
+    }
+
+    private String readLine(long start, long end) {
+        byte[] bytes = new byte[(int) (end - start)];
+        window.get((int) (start - windowStart), bytes, 0, bytes.length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void ensureMapped(long offset) throws IOException {
+        if (window == null || offset < windowStart || offset >= windowStart + window.limit()) {
+            map(offset);
+        }
+    }
+
+    // 이전 window 는 여기서 참조가 끊기고, 매핑은 GC 때 해제된다 (클래스 주석 참고)
+    private void map(long offset) throws IOException {
+        long size = Math.min(currentWindowSize, fileSize - offset);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+        windowStart = offset;
+    }
+}
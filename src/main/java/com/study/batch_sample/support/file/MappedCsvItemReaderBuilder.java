@@ -0,0 +1,83 @@
+package com.study.batch_sample.support.file;
+
+import org.springframework.core.io.Resource;
+import org.springframework.util.Assert;
+
+public class MappedCsvItemReaderBuilder<T> {
+
+    private String name;
+    private Resource resource;
+    private CsvRecordMapper<T> recordMapper;
+    private char delimiter = ',';
+    private int linesToSkip = 0;
+    private long startOffset = 0;
+    private long endOffset = Long.MAX_VALUE;
+    private int windowSize = 64 * 1024 * 1024;
+    private boolean saveState = true;
+
+    public MappedCsvItemReaderBuilder<T> name(String name) {
+        this.name = name;
+        return this;
+    }
+
+    public MappedCsvItemReaderBuilder<T> resource(Resource resource) {
+        this.resource = resource;
+        return this;
+    }
+
+    public MappedCsvItemReaderBuilder<T> recordMapper(CsvRecordMapper<T> recordMapper) {
+        this.recordMapper = recordMapper;
+        return this;
+    }
+
+    public MappedCsvItemReaderBuilder<T> delimiter(char delimiter) {
+        this.delimiter = delimiter;
+        return this;
+    }
+
+    public MappedCsvItemReaderBuilder<T> linesToSkip(int linesToSkip) {
+        this.linesToSkip = linesToSkip;
+        return this;
+    }
+
+    /**
+     * [startOffset, endOffset) 안에서 시작하는 줄만 읽는다.
+     */
+    public MappedCsvItemReaderBuilder<T> byteRange(long startOffset, long endOffset) {
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+        return this;
+    }
+
+    public MappedCsvItemReaderBuilder<T> windowSize(int windowSize) {
+        this.windowSize = windowSize;
+        return this;
+    }
+
+    public MappedCsvItemReaderBuilder<T> saveState(boolean saveState) {
+        this.saveState = saveState;
+        return this;
+    }
+
+    public MappedCsvItemReader<T> build() {
+        Assert.notNull(resource, "resource is required.");
+        Assert.notNull(recordMapper, "recordMapper is required.");
+        Assert.isTrue(startOffset >= 0 && startOffset <= endOffset, "startOffset must be between 0 and endOffset.");
+        Assert.isTrue(windowSize > 0, "windowSize must be positive.");
+        if (saveState) {
+            Assert.hasText(name, "A name is required when saveState is set to true.");
+        }
+
+        MappedCsvItemReader<T> reader = new MappedCsvItemReader<>(resource, recordMapper);
+        if (name != null) {
+            reader.setName(name);
+        }
+        reader.setDelimiter(delimiter);
+        reader.setLinesToSkip(linesToSkip);
+        reader.setStartOffset(startOffset);
+        reader.setEndOffset(endOffset);
+        reader.setWindowSize(windowSize);
+        reader.setSaveState(saveState);
+        return reader;
+    }
+}
@@ -0,0 +1,33 @@
+package com.study.batch_sample.support.jfr;
+
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+
+/**
+ * JFR event 공통 상수와 도우미.
+ * event 는 모두 "Spring Batch" 카테고리에 모여 JMC / jfr print 에서 JVM event 와 함께 볼 수 있다.
+ * <pre>
+ *     java -XX:StartFlightRecording=filename=batch.jfr,settings=profile -jar batch_sample.jar
+ *     jfr print --categories "Spring Batch" batch.jfr
+ * </pre>
+ */
+public final class BatchEvents {
+
+    public static final String CATEGORY = "Spring Batch";
+
+    private BatchEvents() {
+    }
+
+    /**
+     * 현재 스레드에 등록된 step 이름. step 스레드가 아니면(prefetch 스레드 등) 빈 문자열.
+     */
+    public static String currentStepName() {
+        StepContext context = StepSynchronizationManager.getContext();
+        return context == null ? "" : context.getStepName();
+    }
+
+    static String jobName(StepExecution stepExecution) {
+        return stepExecution.getJobExecution().getJobInstance().getJobName();
+    }
+}
@@ -0,0 +1,14 @@
+package com.study.batch_sample.support.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.study.batch.ChunkCommit")
+@Label("Chunk Commit")
+@Description("Commit (or rollback) of the chunk transaction")
+class ChunkCommitEvent extends ChunkPhaseEvent {
+
+    @Label("Outcome")
+    String outcome;
+}
@@ -0,0 +1,40 @@
+package com.study.batch_sample.support.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * chunk 하나(첫 read ~ commit).
+ */
+@Name("com.study.batch.Chunk")
+@Label("Chunk")
+@Category(BatchEvents.CATEGORY)
+@StackTrace(false)
+@Description("A chunk from the first read to the end of its transaction")
+public class ChunkEvent extends Event {
+
+    @Label("Job")
+    String job;
+
+    @Label("Step")
+    String step;
+
+    @Label("Chunk Number")
+    long chunk;
+
+    @Label("Read Count")
+    long readCount;
+
+    @Label("Process Count")
+    long processCount;
+
+    @Label("Write Count")
+    long writeCount;
+
+    @Label("Outcome")
+    String outcome;
+}
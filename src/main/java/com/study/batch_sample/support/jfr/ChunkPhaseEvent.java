@@ -0,0 +1,26 @@
+package com.study.batch_sample.support.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * chunk 안의 read / process / write / commit 구간. 하위 클래스가 구간마다 별도의 event 타입이 된다.
+ */
+@Category({BatchEvents.CATEGORY, "Chunk Phase"})
+@StackTrace(false)
+abstract class ChunkPhaseEvent extends Event {
+
+    @Label("Job")
+    String job;
+
+    @Label("Step")
+    String step;
+
+    @Label("Chunk Number")
+    long chunk;
+
+    @Label("Item Count")
+    long itemCount;
+}
@@ -0,0 +1,11 @@
+package com.study.batch_sample.support.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.study.batch.ChunkProcess")
+@Label("Chunk Process")
+@Description("Processing the items of one chunk")
+class ChunkProcessEvent extends ChunkPhaseEvent {
+}
@@ -0,0 +1,11 @@
+package com.study.batch_sample.support.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.study.batch.ChunkRead")
+@Label("Chunk Read")
+@Description("Reading the items of one chunk")
+class ChunkReadEvent extends ChunkPhaseEvent {
+}
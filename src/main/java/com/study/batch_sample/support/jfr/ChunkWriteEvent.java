@@ -0,0 +1,11 @@
+package com.study.batch_sample.support.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.study.batch.ChunkWrite")
+@Label("Chunk Write")
+@Description("Writing the items of one chunk")
+class ChunkWriteEvent extends ChunkPhaseEvent {
+}
@@ -0,0 +1,245 @@
+package com.study.batch_sample.support.jfr;
+
+import com.study.batch_sample.support.metrics.GlobalStepListener;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.ItemProcessListener;
+import org.springframework.batch.core.ItemReadListener;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.Chunk;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * chunk 마다 ChunkEvent 와 read / process / write / commit 구간 event 를 남기는 listener. (GlobalStepListener 로 모든 step 에 붙는다)
+ *
+ * ChunkOrientedTasklet 은 chunk 안에서 read 를 모두 끝낸 뒤 process, write, commit 순서로 진행하므로
+ * 구간이 바뀌는 시점(다른 구간의 첫 before* 호출)에 이전 구간 event 를 닫는다.
+ * stack trace 는 남기지 않는다. (chunk 마다 여러 건이라 녹화 중 비용을 줄인다)
+ * JFR 녹화 중이 아니면 beforeChunk 에서 바로 빠져나가 item 단위 callback 은 ThreadLocal 조회만 한다.
+ */
+public class JfrChunkEventListener implements GlobalStepListener, StepExecutionListener, ChunkListener,
+        ItemReadListener<Object>, ItemProcessListener<Object, Object>, ItemWriteListener<Object> {
+
+    // multi-threaded step 에서도 chunk 번호가 겹치지 않게 StepExecution 별로 센다
+    private final Map<Long, AtomicLong> chunkNumbers = new ConcurrentHashMap<>();
+    private final ThreadLocal<ChunkRecording> recording = new ThreadLocal<>();
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        chunkNumbers.put(stepExecution.getId(), new AtomicLong());
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        chunkNumbers.remove(stepExecution.getId());
+        return null;
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        ChunkEvent chunkEvent = new ChunkEvent();
+        if (!chunkEvent.isEnabled()) {
+            recording.remove();
+            return;
+        }
+
+        StepExecution stepExecution = context.getStepContext().getStepExecution();
+        long chunkNumber = chunkNumbers.computeIfAbsent(stepExecution.getId(), id -> new AtomicLong()).incrementAndGet();
+        ChunkRecording chunk = new ChunkRecording(BatchEvents.jobName(stepExecution), stepExecution.getStepName(), chunkNumber, chunkEvent);
+        recording.set(chunk);
+        chunkEvent.begin();
+
+        // beforeChunk 는 chunk 트랜잭션 안에서 호출된다
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(chunk);
+        }
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        finishChunk("SUCCESS");
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        finishChunk("FAILURE");
+    }
+
+    @Override
+    public void beforeRead() {
+        ChunkRecording chunk = recording.get();
+        if (chunk != null) {
+            chunk.enter(Phase.READ);
+        }
+    }
+
+    @Override
+    public void afterRead(Object item) {
+        ChunkRecording chunk = recording.get();
+        if (chunk != null) {
+            chunk.itemDone(1);
+        }
+    }
+
+    @Override
+    public void beforeProcess(Object item) {
+        ChunkRecording chunk = recording.get();
+        if (chunk != null) {
+            chunk.enter(Phase.PROCESS);
+        }
+    }
+
+    @Override
+    public void afterProcess(Object item, Object result) {
+        ChunkRecording chunk = recording.get();
+        if (chunk != null) {
+            chunk.itemDone(1);
+        }
+    }
+
+    @Override
+    public void beforeWrite(Chunk<?> items) {
+        ChunkRecording chunk = recording.get();
+        if (chunk != null) {
+            chunk.enter(Phase.WRITE);
+        }
+    }
+
+    @Override
+    public void afterWrite(Chunk<?> items) {
+        ChunkRecording chunk = recording.get();
+        if (chunk != null) {
+            chunk.itemDone(items.size());
+            chunk.closePhase();
+        }
+    }
+
+    @Override
+    public void onWriteError(Exception exception, Chunk<?> items) {
+        ChunkRecording chunk = recording.get();
+        if (chunk != null) {
+            chunk.closePhase();
+        }
+    }
+
+    private void finishChunk(String outcome) {
+        ChunkRecording chunk = recording.get();
+        recording.remove();
+        if (chunk != null) {
+            chunk.finish(outcome);
+        }
+    }
+
+    private enum Phase {
+        READ, PROCESS, WRITE
+    }
+
+    /**
+     * 한 스레드에서 진행 중인 chunk 의 event 들.
+     * 트랜잭션 synchronization 으로도 등록되어 commit 구간을 잰다.
+     */
+    private static class ChunkRecording implements TransactionSynchronization {
+
+        private final String job;
+        private final String step;
+        private final long chunkNumber;
+        private final ChunkEvent chunkEvent;
+
+        private Phase phase;
+        private ChunkPhaseEvent phaseEvent;
+        private long phaseItems;
+
+        private final long[] itemCounts = new long[Phase.values().length];
+        private ChunkCommitEvent commitEvent;
+
+        ChunkRecording(String job, String step, long chunkNumber, ChunkEvent chunkEvent) {
+            this.job = job;
+            this.step = step;
+            this.chunkNumber = chunkNumber;
+            this.chunkEvent = chunkEvent;
+        }
+
+        void enter(Phase next) {
+            if (phase == next) {
+                return;
+            }
+            closePhase();
+            phase = next;
+            phaseItems = 0;
+            phaseEvent = switch (next) {
+                case READ -> new ChunkReadEvent();
+                case PROCESS -> new ChunkProcessEvent();
+                case WRITE -> new ChunkWriteEvent();
+            };
+            phaseEvent.begin();
+        }
+
+        void itemDone(long count) {
+            phaseItems += count;
+        }
+
+        void closePhase() {
+            if (phaseEvent == null) {
+                return;
+            }
+            phaseEvent.end();
+            itemCounts[phase.ordinal()] += phaseItems;
+            commit(phaseEvent, phaseItems);
+            phase = null;
+            phaseEvent = null;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            closePhase();
+            commitEvent = new ChunkCommitEvent();
+            commitEvent.begin();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            closePhase();
+            if (commitEvent == null) {
+                // commit 까지 가지 못하고 롤백된 chunk 는 commit event 를 남기지 않는다
+                return;
+            }
+            commitEvent.end();
+            commitEvent.outcome = status == STATUS_COMMITTED ? "COMMITTED" : "ROLLED_BACK";
+            commit(commitEvent, itemCounts[Phase.WRITE.ordinal()]);
+            commitEvent = null;
+        }
+
+        void finish(String outcome) {
+            closePhase();
+            chunkEvent.end();
+            if (chunkEvent.shouldCommit()) {
+                chunkEvent.job = job;
+                chunkEvent.step = step;
+                chunkEvent.chunk = chunkNumber;
+                chunkEvent.readCount = itemCounts[Phase.READ.ordinal()];
+                chunkEvent.processCount = itemCounts[Phase.PROCESS.ordinal()];
+                chunkEvent.writeCount = itemCounts[Phase.WRITE.ordinal()];
+                chunkEvent.outcome = outcome;
+                chunkEvent.commit();
+            }
+        }
+
+        private void commit(ChunkPhaseEvent event, long itemCount) {
+            if (event.shouldCommit()) {
+                event.job = job;
+                event.step = step;
+                event.chunk = chunkNumber;
+                event.itemCount = itemCount;
+                event.commit();
+            }
+        }
+    }
+}
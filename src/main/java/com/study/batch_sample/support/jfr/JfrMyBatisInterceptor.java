@@ -0,0 +1,43 @@
+package com.study.batch_sample.support.jfr;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import java.util.List;
+
+/**
+ * MyBatis select 마다 SqlStatementEvent 를 남기는 plugin.
+ * MyBatisPagingItemReader / MyBatisCursorItemReader 처럼 코드를 고칠 수 없는 reader 의 조회 시간도 JFR 에서 볼 수 있다.
+ * (cursor 는 열 때까지의 시간만 잡힌다. 이후 fetch 는 read 구간에 포함된다)
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "queryCursor", args = {MappedStatement.class, Object.class, RowBounds.class})
+})
+public class JfrMyBatisInterceptor implements Interceptor {
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        SqlStatementEvent event = new SqlStatementEvent();
+        event.begin();
+        Object result = invocation.proceed();
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.statement = ((MappedStatement) invocation.getArgs()[0]).getId();
+            event.step = BatchEvents.currentStepName();
+            event.rowCount = result instanceof List<?> rows ? rows.size() : -1;
+            event.commit();
+        }
+        return result;
+    }
+}
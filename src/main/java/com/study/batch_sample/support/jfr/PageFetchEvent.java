@@ -0,0 +1,52 @@
+package com.study.batch_sample.support.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * paging reader 가 페이지 하나를 조회한 구간.
+ * <pre>
+ *     PageFetchEvent event = new PageFetchEvent();
+ *     event.begin();
+ *     List&lt;T&gt; page = ...;
+ *     event.end();
+ *     if (event.shouldCommit()) {
+ *         event.reader = name;
+ *         ...
+ *         event.commit();
+ *     }
+ * </pre>
+ * 녹화 중이 아니면 shouldCommit() 이 false 라 필드를 채우는 비용도 들지 않는다.
+ */
+@Name("com.study.batch.PageFetch")
+@Label("Page Fetch")
+@Category(BatchEvents.CATEGORY)
+@StackTrace(false)
+@Description("A page query issued by a paging item reader")
+public class PageFetchEvent extends Event {
+
+    @Label("Reader")
+    public String reader;
+
+    @Label("Step")
+    public String step;
+
+    @Label("Offset")
+    @Description("Row offset of the page, -1 for keyset paging")
+    public long offset;
+
+    @Label("Start After")
+    @Description("Last key of the previous page for keyset paging")
+    public String startAfter;
+
+    @Label("Row Count")
+    public long rowCount;
+
+    @Label("Prefetch")
+    @Description("Fetched ahead by a background thread")
+    public boolean prefetch;
+}
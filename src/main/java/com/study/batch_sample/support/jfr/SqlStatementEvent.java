@@ -0,0 +1,29 @@
+package com.study.batch_sample.support.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * MyBatis 로 실행한 select 하나. (JfrMyBatisInterceptor 가 남긴다)
+ */
+@Name("com.study.batch.SqlStatement")
+@Label("MyBatis Statement")
+@Category(BatchEvents.CATEGORY)
+@StackTrace(false)
+@Description("A select executed through MyBatis")
+class SqlStatementEvent extends Event {
+
+    @Label("Statement")
+    String statement;
+
+    @Label("Step")
+    String step;
+
+    @Label("Row Count")
+    @Description("Rows returned, -1 for cursors")
+    long rowCount;
+}
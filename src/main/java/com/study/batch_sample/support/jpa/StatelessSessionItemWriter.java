@@ -0,0 +1,65 @@
+package com.study.batch_sample.support.jpa;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+/**
+ * chunk 를 Hibernate StatelessSession 으로 insert 하는 writer.
+ *
+ * - 영속성 컨텍스트(1차 캐시, dirty checking 스냅샷)를 만들지 않으므로 chunk 가 끝나도 남는 엔티티가 없다.
+ * - id 는 엔티티의 generator 로 만든다. @SequenceGenerator 의 allocationSize 와 pooled-lo optimizer 를 쓰면
+ *   allocationSize 건마다 한 번만 sequence 를 조회한다.
+ * - insert 는 jdbcBatchSize 단위 JDBC batch 로 보낸다. (MySQL 은 rewriteBatchedStatements=true 여야 한 번에 간다)
+ *
+ * session 은 chunk 트랜잭션에 묶인 JDBC 커넥션 위에서 연다. 따라서 step 의 트랜잭션 매니저는 dataSource 에 대한
+ * DataSourceTransactionManager 이거나 같은 EntityManagerFactory 의 JpaTransactionManager 여야 한다.
+ * 엔티티를 그대로 insert 하므로 cascade, 연관관계 orphan 처리 등은 일어나지 않는다.
+ */
+@Slf4j
+public class StatelessSessionItemWriter<T> implements ItemWriter<T> {
+
+    private final SessionFactory sessionFactory;
+    private final DataSource dataSource;
+    private final int jdbcBatchSize;
+
+    /**
+     * @param dataSource entityManagerFactory 가 사용하는 DataSource
+     */
+    public StatelessSessionItemWriter(EntityManagerFactory entityManagerFactory, DataSource dataSource, int jdbcBatchSize) {
+        if (jdbcBatchSize < 1) {
+            throw new IllegalArgumentException("jdbcBatchSize must be positive: " + jdbcBatchSize);
+        }
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.dataSource = dataSource;
+        this.jdbcBatchSize = jdbcBatchSize;
+    }
+
+    @Override
+    public void write(Chunk<? extends T> chunk) throws Exception {
+        // 트랜잭션에 묶인 커넥션이면 release 해도 닫히지 않고, commit / rollback 도 chunk 트랜잭션을 따른다
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (StatelessSession session = sessionFactory.withStatelessOptions().connection(connection).openStatelessSession()) {
+            session.setJdbcBatchSize(jdbcBatchSize);
+            for (T item : chunk) {
+                session.insert(item);
+            }
+            // StatelessSession 에는 flush 가 없으므로 남은 batch 를 닫기 전에 직접 실행한다
+            ((SharedSessionContractImplementor) session).getJdbcCoordinator().executeBatch();
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Inserted {} rows through a stateless session", chunk.size());
+        }
+    }
+}
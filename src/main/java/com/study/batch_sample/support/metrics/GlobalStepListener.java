@@ -0,0 +1,11 @@
+package com.study.batch_sample.support.metrics;
+
+import org.springframework.batch.core.StepListener;
+
+/**
+ * 이 인터페이스를 구현한 bean 은 GlobalStepListenerRegistrar 가 모든 Step 에 자동으로 등록한다.
+ * (StepExecutionListener / ChunkListener 중 구현한 것만 해당 위치에 붙는다)
+ * Item*Listener 는 chunk step builder 에 GlobalStepListenerConfigurer 를 적용해야 붙는다.
+ */
+public interface GlobalStepListener extends StepListener {
+}
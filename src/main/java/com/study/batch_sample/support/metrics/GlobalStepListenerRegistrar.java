@@ -0,0 +1,54 @@
+package com.study.batch_sample.support.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.step.AbstractStep;
+import org.springframework.batch.core.step.tasklet.TaskletStep;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Step bean 이 만들어질 때 GlobalStepListener bean 들을 붙여주는 BeanPostProcessor.
+ * job config 마다 .listener(...) 를 추가하지 않아도 모든 job 의 step 에 적용된다.
+ *
+ * - StepExecutionListener : 모든 AbstractStep (TaskletStep, PartitionStep, FlowStep ...)
+ * - ChunkListener : TaskletStep
+ *
+ * 둘 다 step 의 공개 API(registerStepExecutionListener / registerChunkListener) 로 등록한다.
+ * Item*Listener 는 build 된 step 에 붙일 공개 API 가 없으므로 chunk step 을 만들 때
+ * {@link com.study.batch_sample.config.GlobalStepListenerConfigurer} 로 builder 에 등록한다.
+ *
+ * StepBuilder 가 이미 build 한 step 에 추가하는 것이라 builder 로 등록한 listener 보다 뒤에 호출된다.
+ */
+@Slf4j
+public class GlobalStepListenerRegistrar implements BeanPostProcessor {
+
+    // BeanPostProcessor 는 먼저 만들어지므로 listener 는 실제 step 을 처리할 때 꺼낸다
+    private final ObjectProvider<GlobalStepListener> listeners;
+
+    public GlobalStepListenerRegistrar(ObjectProvider<GlobalStepListener> listeners) {
+        this.listeners = listeners;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof AbstractStep step) {
+            listeners.orderedStream().forEach(listener -> register(step, listener));
+        }
+        return bean;
+    }
+
+    private void register(AbstractStep step, GlobalStepListener listener) {
+        if (listener instanceof StepExecutionListener stepExecutionListener) {
+            step.registerStepExecutionListener(stepExecutionListener);
+        }
+        if (!(step instanceof TaskletStep taskletStep)) {
+            return;
+        }
+        if (listener instanceof ChunkListener chunkListener) {
+            taskletStep.registerChunkListener(chunkListener);
+        }
+        log.debug("Registered {} on step {}", listener.getClass().getSimpleName(), step.getName());
+    }
+}
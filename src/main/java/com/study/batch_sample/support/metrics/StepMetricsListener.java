@@ -0,0 +1,243 @@
+package com.study.batch_sample.support.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.ItemProcessListener;
+import org.springframework.batch.core.ItemReadListener;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.Chunk;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 모든 step 에 자동으로 붙는(GlobalStepListener) Micrometer 지표 listener.
+ *
+ * - spring.batch.chunk.execution : chunk 하나(read ~ commit) 시간, outcome=SUCCESS|FAILURE
+ * - spring.batch.chunk.commit : chunk 트랜잭션의 commit 시간, outcome=COMMITTED|ROLLED_BACK
+ * - spring.batch.step.items : 처리 건수, type=read|write|filter
+ * - spring.batch.step.skips : skip 건수, phase=read|process|write
+ * - spring.batch.step.rollbacks : 롤백 횟수
+ * - spring.batch.item.errors : reader / processor / writer 가 던진 예외 수 (skip, retry 되기 전 기준), phase, exception
+ *
+ * item 하나하나의 read / process / write 시간은 Spring Batch 가 이미 spring.batch.item.read,
+ * spring.batch.item.process, spring.batch.chunk.write 로 기록하므로 따로 재지 않는다. (histogram 은 application.yml 에서 켠다)
+ * 커넥션 풀 gauge(hikaricp.connections.*)는 actuator 가 DataSource bean 마다 등록한다.
+ *
+ * 건수는 StepExecution 의 누적값에서 직전 chunk 와의 차이만큼 올린다.
+ * multi-threaded step / partition worker 에서 동시에 호출되므로 step 별 상태는 StepExecution id 로 나눠 둔다.
+ */
+public class StepMetricsListener implements GlobalStepListener, StepExecutionListener, ChunkListener,
+        ItemReadListener<Object>, ItemProcessListener<Object, Object>, ItemWriteListener<Object> {
+
+    public static final String CHUNK_EXECUTION_METRIC = "spring.batch.chunk.execution";
+    public static final String CHUNK_COMMIT_METRIC = "spring.batch.chunk.commit";
+    public static final String ITEMS_METRIC = "spring.batch.step.items";
+    public static final String SKIPS_METRIC = "spring.batch.step.skips";
+    public static final String ROLLBACKS_METRIC = "spring.batch.step.rollbacks";
+    public static final String ITEM_ERRORS_METRIC = "spring.batch.item.errors";
+
+    // partition worker step 이름(worker:partition3)에서 파티션 번호를 떼어 tag 수가 늘어나지 않게 한다
+    private static final String PARTITION_SUFFIX = ":partition";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Long, StepCounts> stepCounts = new ConcurrentHashMap<>();
+    private final ThreadLocal<Long> chunkStartNanos = new ThreadLocal<>();
+    // item listener 에는 StepExecution 이 넘어오지 않으므로 chunk 를 시작할 때 tag 를 잡아둔다
+    private final ThreadLocal<Tags> chunkTags = new ThreadLocal<>();
+
+    public StepMetricsListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        stepCounts.put(stepExecution.getId(), new StepCounts(stepExecution));
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        StepCounts counts = stepCounts.remove(stepExecution.getId());
+        if (counts != null) {
+            counts.publish(stepExecution);
+        }
+        return null;
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        StepExecution stepExecution = context.getStepContext().getStepExecution();
+        Tags tags = tags(stepExecution);
+        chunkTags.set(tags);
+        chunkStartNanos.set(System.nanoTime());
+
+        // beforeChunk 는 chunk 트랜잭션 안에서 호출된다
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new CommitTimer(tags));
+        }
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        finishChunk(context, "SUCCESS");
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        finishChunk(context, "FAILURE");
+    }
+
+    @Override
+    public void onReadError(Exception ex) {
+        countItemError("read", ex);
+    }
+
+    @Override
+    public void onProcessError(Object item, Exception ex) {
+        countItemError("process", ex);
+    }
+
+    @Override
+    public void onWriteError(Exception ex, Chunk<?> items) {
+        countItemError("write", ex);
+    }
+
+    private void finishChunk(ChunkContext context, String outcome) {
+        StepExecution stepExecution = context.getStepContext().getStepExecution();
+        Long startNanos = chunkStartNanos.get();
+        chunkStartNanos.remove();
+        chunkTags.remove();
+
+        Tags tags = tags(stepExecution);
+        if (startNanos != null) {
+            Timer.builder(CHUNK_EXECUTION_METRIC)
+                    .description("Duration of a chunk, from the first read to the commit")
+                    .tags(tags)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+
+        StepCounts counts = stepCounts.get(stepExecution.getId());
+        if (counts != null) {
+            counts.publish(stepExecution);
+        }
+    }
+
+    private void countItemError(String phase, Exception ex) {
+        Tags tags = chunkTags.get();
+        Counter.builder(ITEM_ERRORS_METRIC)
+                .description("Exceptions thrown by the reader, processor or writer")
+                .tags(tags == null ? Tags.empty() : tags)
+                .tag("phase", phase)
+                .tag("exception", ex.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private Tags tags(StepExecution stepExecution) {
+        String stepName = stepExecution.getStepName();
+        int partition = stepName.indexOf(PARTITION_SUFFIX);
+        if (partition > 0) {
+            stepName = stepName.substring(0, partition);
+        }
+        return Tags.of("job", stepExecution.getJobExecution().getJobInstance().getJobName(), "step", stepName);
+    }
+
+    private Counter counter(String name, Tags tags, String tagKey, String tagValue) {
+        return Counter.builder(name)
+                .tags(tags)
+                .tag(tagKey, tagValue)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 마지막으로 올린 시점의 StepExecution 누적값.
+     * 롤백되면 StepExecution 의 건수가 되돌아가는데, Counter 는 줄일 수 없으므로 늘어난 만큼만 올린다. (재처리한 건수도 포함된다)
+     */
+    private class StepCounts {
+
+        private final Tags tags;
+        private long read;
+        private long write;
+        private long filter;
+        private long readSkip;
+        private long processSkip;
+        private long writeSkip;
+        private long rollback;
+
+        StepCounts(StepExecution stepExecution) {
+            this.tags = tags(stepExecution);
+            // 재시작된 step 은 이전 실행의 건수를 들고 시작한다
+            this.read = stepExecution.getReadCount();
+            this.write = stepExecution.getWriteCount();
+            this.filter = stepExecution.getFilterCount();
+            this.readSkip = stepExecution.getReadSkipCount();
+            this.processSkip = stepExecution.getProcessSkipCount();
+            this.writeSkip = stepExecution.getWriteSkipCount();
+            this.rollback = stepExecution.getRollbackCount();
+        }
+
+        synchronized void publish(StepExecution stepExecution) {
+            read = increment(counter(ITEMS_METRIC, tags, "type", "read"), read, stepExecution.getReadCount());
+            write = increment(counter(ITEMS_METRIC, tags, "type", "write"), write, stepExecution.getWriteCount());
+            filter = increment(counter(ITEMS_METRIC, tags, "type", "filter"), filter, stepExecution.getFilterCount());
+            readSkip = increment(counter(SKIPS_METRIC, tags, "phase", "read"), readSkip, stepExecution.getReadSkipCount());
+            processSkip = increment(counter(SKIPS_METRIC, tags, "phase", "process"), processSkip, stepExecution.getProcessSkipCount());
+            writeSkip = increment(counter(SKIPS_METRIC, tags, "phase", "write"), writeSkip, stepExecution.getWriteSkipCount());
+            rollback = increment(Counter.builder(ROLLBACKS_METRIC).tags(tags).register(meterRegistry), rollback, stepExecution.getRollbackCount());
+        }
+
+        private long increment(Counter counter, long previous, long current) {
+            if (current > previous) {
+                counter.increment(current - previous);
+            }
+            return current;
+        }
+    }
+
+    /**
+     * chunk 트랜잭션의 commit 시간을 잰다. (beforeCommit ~ afterCompletion)
+     */
+    private class CommitTimer implements TransactionSynchronization {
+
+        private final Tags tags;
+        private Long commitStartNanos;
+
+        CommitTimer(Tags tags) {
+            this.tags = tags;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            commitStartNanos = System.nanoTime();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            // beforeCommit 전에 롤백된 경우
+            if (commitStartNanos == null) {
+                return;
+            }
+            Timer.builder(CHUNK_COMMIT_METRIC)
+                    .description("Commit latency of the chunk transaction")
+                    .tags(tags)
+                    .tag("outcome", status == STATUS_COMMITTED ? "COMMITTED" : "ROLLED_BACK")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - commitStartNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
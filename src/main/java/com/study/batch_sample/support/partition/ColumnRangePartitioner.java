@@ -0,0 +1,66 @@
+package com.study.batch_sample.support.partition;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 테이블의 min(column) ~ max(column) 구간을 gridSize 개로 나누어
+ * 각 파티션의 ExecutionContext 에 minId / maxId 를 넣어준다.
+ * worker step 의 reader 는 @StepScope 로 두고 #{stepExecutionContext['minId']} 로 범위를 받는다.
+ */
+@Slf4j
+public class ColumnRangePartitioner implements Partitioner {
+
+    public static final String MIN_ID = "minId";
+    public static final String MAX_ID = "maxId";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String table;
+    private final String column;
+
+    public ColumnRangePartitioner(DataSource dataSource, String table, String column) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.table = table;
+        this.column = column;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        long[] range = jdbcTemplate.queryForObject(
+                "SELECT MIN(" + column + "), MAX(" + column + ") FROM " + table,
+                (rs, rowNum) -> rs.getObject(1) == null ? null : new long[]{rs.getLong(1), rs.getLong(2)});
+
+        Map<String, ExecutionContext> partitions = new LinkedHashMap<>();
+        if (range == null) {
+            // 빈 테이블이면 아무것도 읽지 않는 파티션 하나만 만든다
+            partitions.put("partition0", rangeContext(0, -1));
+            return partitions;
+        }
+
+        long min = range[0];
+        long max = range[1];
+        long targetSize = (max - min) / gridSize + 1;
+
+        int number = 0;
+        for (long start = min; start <= max; start += targetSize) {
+            long end = Math.min(start + targetSize - 1, max);
+            partitions.put("partition" + number++, rangeContext(start, end));
+        }
+
+        log.info("{}.{} [{} ~ {}] -> {} partitions", table, column, min, max, partitions.size());
+        return partitions;
+    }
+
+    private ExecutionContext rangeContext(long minId, long maxId) {
+        ExecutionContext context = new ExecutionContext();
+        context.putLong(MIN_ID, minId);
+        context.putLong(MAX_ID, maxId);
+        return context;
+    }
+}
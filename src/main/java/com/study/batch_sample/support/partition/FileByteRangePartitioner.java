@@ -0,0 +1,102 @@
+package com.study.batch_sample.support.partition;
+
+import com.study.batch_sample.support.file.LocalResourceFile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 하나의 파일을 gridSize 개의 바이트 구간으로 나누어
+ * 각 파티션의 ExecutionContext 에 startOffset / endOffset 을 넣어준다.
+ * 구간 경계는 항상 다음 줄의 시작 위치로 맞추고, 헤더 줄은 첫 구간에서 제외한다.
+ * worker step 의 reader 는 @StepScope 로 두고 MappedCsvItemReader 의 byteRange 로 범위를 받는다.
+ */
+@Slf4j
+public class FileByteRangePartitioner implements Partitioner {
+
+    public static final String START_OFFSET = "startOffset";
+    public static final String END_OFFSET = "endOffset";
+
+    private static final int SCAN_BUFFER_SIZE = 8 * 1024;
+
+    private final Resource resource;
+    private final int linesToSkip;
+
+    public FileByteRangePartitioner(Resource resource, int linesToSkip) {
+        this.resource = resource;
+        this.linesToSkip = linesToSkip;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        Map<String, ExecutionContext> partitions = new LinkedHashMap<>();
+
+        // jar 안의 resource 면 임시 파일로 복사해서 경계를 찾는다. (worker 의 MappedCsvItemReader 도 같은 내용을 읽는다)
+        try (LocalResourceFile file = LocalResourceFile.of(resource);
+             FileChannel channel = FileChannel.open(file.getPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+
+            long dataStart = 0;
+            for (int i = 0; i < linesToSkip; i++) {
+                dataStart = nextLineStart(channel, dataStart);
+            }
+
+            long targetSize = Math.max(1, (size - dataStart) / gridSize);
+            long start = dataStart;
+            int number = 0;
+            while (start < size) {
+                // 경계가 줄 중간에 걸리면 그 줄은 앞 구간에 포함시킨다
+                long end = number == gridSize - 1 ? size : nextLineStart(channel, Math.min(start + targetSize, size) - 1);
+                partitions.put("partition" + number++, rangeContext(start, end));
+                start = end;
+            }
+
+            if (partitions.isEmpty()) {
+                // 헤더만 있는 파일이면 아무것도 읽지 않는 파티션 하나만 만든다
+                partitions.put("partition0", rangeContext(size, size));
+            }
+
+            log.info("{} [{} ~ {} bytes] -> {} partitions", resource.getFilename(), dataStart, size, partitions.size());
+        } catch (IOException e) {
+            throw new ItemStreamException("Failed to partition " + resource, e);
+        }
+        return partitions;
+    }
+
+    /**
+     * from 위치부터 '\n' 을 찾아 그 다음 위치를 돌려준다. 없으면 파일 크기.
+     */
+    private long nextLineStart(FileChannel channel, long from) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long position = from;
+        while (true) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+    }
+
+    private ExecutionContext rangeContext(long startOffset, long endOffset) {
+        ExecutionContext context = new ExecutionContext();
+        context.putLong(START_OFFSET, startOffset);
+        context.putLong(END_OFFSET, endOffset);
+        return context;
+    }
+}
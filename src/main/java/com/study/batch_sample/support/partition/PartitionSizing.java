@@ -0,0 +1,27 @@
+package com.study.batch_sample.support.partition;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * 파티션(또는 동시 실행 스레드) 수는 CPU 코어 수와 커넥션 풀 크기 중 작은 값을 넘지 않게 한다.
+ * 풀보다 많은 worker 는 커넥션을 기다리며 줄만 서게 된다.
+ */
+public final class PartitionSizing {
+
+    private PartitionSizing() {
+    }
+
+    public static int gridSize(DataSource dataSource) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        return Math.max(1, Math.min(cores, maxPoolSize(dataSource)));
+    }
+
+    public static int maxPoolSize(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari) {
+            return hikari.getMaximumPoolSize();
+        }
+        return Integer.MAX_VALUE;
+    }
+}
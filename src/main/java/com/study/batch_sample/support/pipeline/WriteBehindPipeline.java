@@ -0,0 +1,308 @@
+package com.study.batch_sample.support.pipeline;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStream;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.WriteFailedException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * chunk N 을 쓰는 동안 chunk N+1 을 읽을 수 있도록 write 를 전용 스레드로 넘기는 write-behind 단계.
+ * <pre>
+ *     WriteBehindPipeline&lt;Customer, Customer&gt; pipeline = new WriteBehindPipeline&lt;&gt;(reader, writer, writerTransactionManager, 2);
+ *
+ *     new StepBuilder("step", jobRepository)
+ *             .&lt;Customer, Customer&gt;chunk(CHUNK_SIZE, transactionManager)
+ *             .reader(pipeline.reader())
+ *             .writer(pipeline.writer())   // ChunkListener / StepExecutionListener 로도 자동 등록된다
+ *             .build();
+ * </pre>
+ *
+ * - step 의 chunk 는 처리한 item 과 그 시점의 reader 상태를 모아두기만 하고, chunk 트랜잭션이 커밋된 뒤(afterChunk)
+ *   bounded queue 에 넣는다. 롤백된 chunk(afterChunkError) 는 버리므로 재시도된 chunk 가 두 번 쓰이지 않는다.
+ * - writer 스레드가 queue 의 chunk 마다 writerTransactionManager 트랜잭션 하나로 delegate writer 를 호출한다.
+ *   (queue 가 차면 reader 쪽이 기다린다)
+ * - reader 의 재시작 위치는 chunk 를 읽은 시점이 아니라, 그 chunk 의 write 가 커밋된 뒤에만 ExecutionContext 에 반영된다.
+ *   중간에 죽으면 마지막으로 커밋된 chunk 다음부터 다시 읽으므로 읽기만 하고 쓰지 못한 item 을 건너뛰지 않는다.
+ *   (커밋은 됐지만 위치가 저장되기 전에 죽은 chunk 는 다시 쓰일 수 있다 - at-least-once)
+ * - step 이 끝나면(afterStep) 남은 chunk 를 모두 쓴 뒤 최종 위치를 저장하고, writeCount / commitCount 를
+ *   writer 스레드가 실제로 쓴 건수 / chunk 수로 맞춘다.
+ *   writer 스레드에서 실패하면 다음 chunk 에서 예외를 던지고 step 은 FAILED 가 된다.
+ */
+@Slf4j
+public class WriteBehindPipeline<I, O> {
+
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+
+    private final ItemStreamReader<I> readerDelegate;
+    private final ItemWriter<O> writerDelegate;
+    private final TransactionTemplate transactionTemplate;
+    private final int queueCapacity;
+
+    private final SnapshotReader reader = new SnapshotReader();
+    private final QueueingWriter writer = new QueueingWriter();
+
+    private BlockingQueue<Batch<O>> queue;
+    private ExecutorService writerThread;
+    private Future<?> writerTask;
+
+    // 현재 chunk 트랜잭션에서 write() 로 받은 item 과 update() 시점의 reader 상태 (커밋 후 함께 queue 에 넣는다)
+    private final List<O> staged = new ArrayList<>();
+    private ExecutionContext stagedState;
+
+    // writer 스레드가 마지막으로 커밋한 chunk 기준의 reader / writer 상태
+    private volatile ExecutionContext committedState = new ExecutionContext();
+    private volatile Throwable failure;
+    private final AtomicLong writtenItems = new AtomicLong();
+    private final AtomicLong writtenChunks = new AtomicLong();
+
+    public WriteBehindPipeline(ItemStreamReader<I> reader, ItemWriter<O> writer,
+                               PlatformTransactionManager writerTransactionManager, int queueCapacity) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be positive: " + queueCapacity);
+        }
+        this.readerDelegate = reader;
+        this.writerDelegate = writer;
+        this.transactionTemplate = new TransactionTemplate(writerTransactionManager);
+        this.queueCapacity = queueCapacity;
+    }
+
+    public ItemStreamReader<I> reader() {
+        return reader;
+    }
+
+    public ItemStreamWriter<O> writer() {
+        return writer;
+    }
+
+    private record Batch<O>(List<O> items, ExecutionContext state, boolean end) {
+    }
+
+    public class SnapshotReader implements ItemStreamReader<I> {
+
+        @Override
+        public I read() throws Exception {
+            return readerDelegate.read();
+        }
+
+        @Override
+        public void open(ExecutionContext executionContext) throws ItemStreamException {
+            readerDelegate.open(executionContext);
+        }
+
+        @Override
+        public void update(ExecutionContext executionContext) throws ItemStreamException {
+            // 지금 위치는 ExecutionContext 에 바로 쓰지 않고, 커밋 후 이번 chunk 와 함께 writer 스레드로 넘긴다
+            checkFailure();
+            ExecutionContext state = new ExecutionContext();
+            readerDelegate.update(state);
+            stagedState = state;
+        }
+
+        @Override
+        public void close() throws ItemStreamException {
+            readerDelegate.close();
+        }
+    }
+
+    public class QueueingWriter implements ItemStreamWriter<O>, ChunkListener, StepExecutionListener {
+
+        @Override
+        public void write(Chunk<? extends O> items) {
+            checkFailure();
+            staged.addAll(items.getItems());
+        }
+
+        @Override
+        public void open(ExecutionContext executionContext) throws ItemStreamException {
+            if (writerDelegate instanceof ItemStream stream) {
+                stream.open(executionContext);
+            }
+
+            ExecutionContext state = new ExecutionContext();
+            readerDelegate.update(state);
+            if (writerDelegate instanceof ItemStream stream) {
+                stream.update(state);
+            }
+            committedState = state;
+            failure = null;
+            writtenItems.set(0);
+            writtenChunks.set(0);
+            clearStaged();
+
+            queue = new ArrayBlockingQueue<>(queueCapacity);
+            writerThread = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "write-behind");
+                thread.setDaemon(true);
+                return thread;
+            });
+            writerTask = writerThread.submit(WriteBehindPipeline.this::writeLoop);
+        }
+
+        @Override
+        public void update(ExecutionContext executionContext) throws ItemStreamException {
+            // 커밋이 끝난 chunk 기준의 상태만 저장한다 (reader.update 가 먼저 호출된다)
+            putAll(committedState, executionContext);
+        }
+
+        @Override
+        public void close() throws ItemStreamException {
+            drain();
+            if (writerDelegate instanceof ItemStream stream) {
+                stream.close();
+            }
+        }
+
+        @Override
+        public void beforeChunk(ChunkContext context) {
+            clearStaged();
+        }
+
+        @Override
+        public void afterChunk(ChunkContext context) {
+            // chunk 트랜잭션(meta DB) 커밋 후에만 writer 스레드로 넘긴다
+            if (stagedState != null) {
+                enqueue(new Batch<>(new ArrayList<>(staged), stagedState, false));
+            }
+            clearStaged();
+        }
+
+        @Override
+        public void afterChunkError(ChunkContext context) {
+            // 롤백된 chunk 의 item 은 버린다 (재시도 / scan 에서 다시 write 된다)
+            clearStaged();
+        }
+
+        @Override
+        public ExitStatus afterStep(StepExecution stepExecution) {
+            drain();
+            putAll(committedState, stepExecution.getExecutionContext());
+
+            long written = writtenItems.get();
+            long chunks = writtenChunks.get();
+            if (stepExecution.getWriteCount() != written || stepExecution.getCommitCount() != chunks) {
+                log.info("write-behind: {} items in {} chunks committed by the step, {} items in {} chunks written",
+                        stepExecution.getWriteCount(), stepExecution.getCommitCount(), written, chunks);
+                stepExecution.setWriteCount(written);
+                stepExecution.setCommitCount(chunks);
+            }
+
+            if (failure != null) {
+                stepExecution.setStatus(BatchStatus.FAILED);
+                stepExecution.addFailureException(failure);
+                return ExitStatus.FAILED.addExitDescription(failure);
+            }
+            return stepExecution.getExitStatus();
+        }
+    }
+
+    private void writeLoop() {
+        try {
+            while (true) {
+                Batch<O> batch = queue.take();
+                if (batch.end()) {
+                    return;
+                }
+                if (!batch.items().isEmpty()) {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        try {
+                            writerDelegate.write(new Chunk<>(batch.items()));
+                        } catch (RuntimeException e) {
+                            throw e;
+                        } catch (Exception e) {
+                            throw new WriteFailedException("Write-behind chunk failed", e);
+                        }
+                    });
+                }
+
+                ExecutionContext state = batch.state();
+                if (writerDelegate instanceof ItemStream stream) {
+                    stream.update(state);
+                }
+                committedState = state;
+                writtenItems.addAndGet(batch.items().size());
+                writtenChunks.incrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            log.error("write-behind writer failed after {} chunks", writtenChunks.get(), e);
+            failure = e;
+        }
+    }
+
+    private void enqueue(Batch<O> batch) {
+        try {
+            while (!queue.offer(batch, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                checkFailure();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ItemStreamException("Interrupted while handing a chunk to the write-behind writer", e);
+        }
+    }
+
+    /**
+     * queue 에 남은 chunk 를 모두 쓰고 writer 스레드를 멈춘다. 여러 번 호출해도 된다.
+     */
+    private void drain() {
+        if (writerThread == null) {
+            return;
+        }
+        try {
+            if (failure == null) {
+                enqueue(new Batch<>(List.of(), null, true));
+                writerTask.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | ItemStreamException e) {
+            log.warn("write-behind drain interrupted", e);
+        } finally {
+            writerThread.shutdownNow();
+            writerThread = null;
+        }
+    }
+
+    private void clearStaged() {
+        staged.clear();
+        stagedState = null;
+    }
+
+    private void checkFailure() {
+        Throwable error = failure;
+        if (error != null) {
+            throw new ItemStreamException("Write-behind writer failed", error);
+        }
+    }
+
+    private static void putAll(ExecutionContext source, ExecutionContext target) {
+        for (Map.Entry<String, Object> entry : source.entrySet()) {
+            target.put(entry.getKey(), entry.getValue());
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.study.batch_sample.support.sort;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ItemStream;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.util.Assert;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToLongFunction;
+
+/**
+ * 힙에 다 올라가지 않는 입력을 정렬하는 external merge sort 의 run 생성 단계.
+ *
+ * - reader 를 끝까지 읽으며 메모리 예산만큼 버퍼에 모으고, 버퍼가 차면 worker 스레드가 정렬해서 run 파일로 내린다.
+ * - 버퍼 하나의 크기는 memoryBudget / (parallelism + 1) 이다. 정렬 중인 버퍼 parallelism 개 + 채우는 중인 버퍼 1개를 합쳐도 예산을 넘지 않는다.
+ * - run 이 한 번에 병합하기에 너무 많으면 (run 수 x 읽기 버퍼가 예산을 넘으면) 중간 병합으로 줄인다.
+ * - run 목록은 job ExecutionContext 의 "{name}.runs" 에 남기고, 다음 step 의 {@link SortedRunsItemReader} 가 병합해서 읽는다.
+ *
+ * 한 번의 execute 에서 전부 처리하므로 step 중간 재시작은 없다. 다시 실행하면 이전 시도의 run 을 지우고 처음부터 만든다.
+ * reader 가 ItemStream 이면 여기서 직접 open/close 한다. (step 에 stream 으로 등록하지 않는다)
+ */
+@Slf4j
+public class ExternalSortTasklet<T> implements Tasklet {
+
+    private final String name;
+    private final ItemReader<? extends T> reader;
+    private final RecordCodec<T> codec;
+    private final Comparator<? super T> comparator;
+    private final ToLongFunction<? super T> sizeEstimator;
+    private final long memoryBudget;
+    private final int parallelism;
+    private final Path tempDirectory;
+
+    public ExternalSortTasklet(String name, ItemReader<? extends T> reader, RecordCodec<T> codec,
+                               Comparator<? super T> comparator, ToLongFunction<? super T> sizeEstimator,
+                               long memoryBudget, int parallelism, Path tempDirectory) {
+        Assert.hasText(name, "name is required");
+        Assert.isTrue(parallelism > 0, "parallelism must be positive");
+        Assert.isTrue(memoryBudget / (parallelism + 1) >= SortedRuns.IO_BUFFER_SIZE,
+                "memoryBudget is too small for the requested parallelism");
+        this.name = name;
+        this.reader = reader;
+        this.codec = codec;
+        this.comparator = comparator;
+        this.sizeEstimator = sizeEstimator;
+        this.memoryBudget = memoryBudget;
+        this.parallelism = parallelism;
+        this.tempDirectory = tempDirectory;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
+        ExecutionContext jobContext = chunkContext.getStepContext().getStepExecution().getJobExecution().getExecutionContext();
+
+        // 실패한 이전 시도가 남긴 run 정리
+        String previous = jobContext.getString(SortedRuns.directoryKey(name), null);
+        if (previous != null) {
+            SortedRuns.deleteDirectory(Path.of(previous));
+        }
+
+        Files.createDirectories(tempDirectory);
+        Path directory = Files.createTempDirectory(tempDirectory, name + "-");
+        jobContext.putString(SortedRuns.directoryKey(name), directory.toString());
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, name + "-sort-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long started = System.nanoTime();
+        try {
+            RunSpiller spiller = new RunSpiller(directory, workers);
+            long count = readIntoRuns(contribution, spiller);
+            List<Path> runs = mergeDown(spiller.await(), spiller);
+
+            jobContext.putString(SortedRuns.runsKey(name), SortedRuns.join(runs));
+            contribution.incrementWriteCount(count);
+            log.info("{} : {} items sorted into {} runs in {} ms", name, count, runs.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } finally {
+            workers.shutdownNow();
+        }
+        return RepeatStatus.FINISHED;
+    }
+
+    private long readIntoRuns(StepContribution contribution, RunSpiller spiller) throws Exception {
+        long bufferBudget = memoryBudget / (parallelism + 1);
+
+        if (reader instanceof ItemStream stream) {
+            stream.open(new ExecutionContext());
+        }
+        try {
+            List<T> buffer = new ArrayList<>();
+            long bufferBytes = 0;
+            long count = 0;
+
+            T item;
+            while ((item = reader.read()) != null) {
+                buffer.add(item);
+                bufferBytes += sizeEstimator.applyAsLong(item);
+                count++;
+                contribution.incrementReadCount();
+
+                if (bufferBytes >= bufferBudget) {
+                    spiller.sortAndSpill(buffer);
+                    buffer = new ArrayList<>(buffer.size());
+                    bufferBytes = 0;
+                }
+            }
+            if (!buffer.isEmpty()) {
+                spiller.sortAndSpill(buffer);
+            }
+            return count;
+        } finally {
+            if (reader instanceof ItemStream stream) {
+                stream.close();
+            }
+        }
+    }
+
+    /**
+     * 마지막 병합에서 열 run 수가 maxFanIn 이하가 될 때까지 묶어서 병합한다.
+     */
+    private List<Path> mergeDown(List<Path> runs, RunSpiller spiller) throws Exception {
+        int maxFanIn = maxFanIn();
+        while (runs.size() > maxFanIn) {
+            for (int from = 0; from < runs.size(); from += maxFanIn) {
+                spiller.merge(runs.subList(from, Math.min(from + maxFanIn, runs.size())));
+            }
+            List<Path> merged = spiller.await();
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+            log.info("{} : merged {} runs into {}", name, runs.size(), merged.size());
+            runs = merged;
+        }
+        return runs;
+    }
+
+    /**
+     * 중간 병합은 parallelism 개가 동시에 돌기 때문에 run 하나당 읽기 버퍼를 기준으로 예산을 나눈다.
+     */
+    private int maxFanIn() {
+        long fanIn = memoryBudget / SortedRuns.IO_BUFFER_SIZE / parallelism;
+        return (int) Math.max(2, Math.min(fanIn, 1024));
+    }
+
+    /**
+     * worker 에 정렬/병합 작업을 넘기고, 동시에 처리 중인 작업이 parallelism 개를 넘지 않게 reader 쪽을 막는다.
+     */
+    private class RunSpiller {
+
+        private final Path directory;
+        private final ExecutorService workers;
+        private final Semaphore inFlight = new Semaphore(parallelism);
+        private final List<Future<Path>> pending = new ArrayList<>();
+        private int runNumber;
+
+        private RunSpiller(Path directory, ExecutorService workers) {
+            this.directory = directory;
+            this.workers = workers;
+        }
+
+        private void sortAndSpill(List<T> buffer) throws InterruptedException {
+            Path file = nextFile();
+            submit(() -> {
+                buffer.sort(comparator);
+                return SortedRuns.write(file, buffer, codec);
+            });
+        }
+
+        private void merge(List<Path> runs) throws InterruptedException {
+            Path file = nextFile();
+            List<Path> inputs = List.copyOf(runs);
+            submit(() -> SortedRuns.merge(file, inputs, codec, comparator));
+        }
+
+        private void submit(Callable<Path> task) throws InterruptedException {
+            inFlight.acquire();
+            try {
+                pending.add(workers.submit(() -> {
+                    try {
+                        return task.call();
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            } catch (RuntimeException e) {
+                inFlight.release();
+                throw e;
+            }
+        }
+
+        /**
+         * 넘긴 작업이 모두 끝날 때까지 기다리고 만들어진 run 을 제출 순서대로 돌려준다.
+         */
+        private List<Path> await() throws IOException, InterruptedException {
+            List<Path> runs = new ArrayList<>(pending.size());
+            try {
+                for (Future<Path> future : pending) {
+                    runs.add(future.get());
+                }
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException io) {
+                    throw io;
+                }
+                throw new IllegalStateException("Failed to sort run", e.getCause());
+            } finally {
+                pending.clear();
+            }
+            return runs;
+        }
+
+        private Path nextFile() {
+            return directory.resolve(String.format("run-%06d.bin", runNumber++));
+        }
+    }
+}
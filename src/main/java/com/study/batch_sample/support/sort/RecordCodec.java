@@ -0,0 +1,16 @@
+package com.study.batch_sample.support.sort;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * 정렬 run 파일에 item 을 쓰고 읽는 바이너리 형식.
+ * CSV 를 다시 파싱하지 않도록 필드를 그대로 쓴다. write 와 read 는 같은 순서로 필드를 다뤄야 한다.
+ */
+public interface RecordCodec<T> {
+
+    void write(DataOutput out, T item) throws IOException;
+
+    T read(DataInput in) throws IOException;
+}
@@ -0,0 +1,91 @@
+package com.study.batch_sample.support.sort;
+
+import com.study.batch_sample.common.Customer;
+import com.study.batch_sample.common.User;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * common.Customer / common.User 용 RecordCodec.
+ * 문자열은 UTF-8 길이(int, null 은 -1) + 바이트, 날짜는 epoch day(long), null 가능한 숫자는 존재 여부 byte 를 앞에 둔다.
+ */
+public final class RecordCodecs {
+
+    private static final int NULL_LENGTH = -1;
+
+    private RecordCodecs() {
+    }
+
+    public static RecordCodec<Customer> customer() {
+        return new RecordCodec<>() {
+            @Override
+            public void write(DataOutput out, Customer customer) throws IOException {
+                out.writeInt(customer.getId());
+                writeString(out, customer.getName());
+                out.writeInt(customer.getAge());
+                writeString(out, customer.getGender());
+            }
+
+            @Override
+            public Customer read(DataInput in) throws IOException {
+                Customer customer = new Customer();
+                customer.setId(in.readInt());
+                customer.setName(readString(in));
+                customer.setAge(in.readInt());
+                customer.setGender(readString(in));
+                return customer;
+            }
+        };
+    }
+
+    public static RecordCodec<User> user() {
+        return new RecordCodec<>() {
+            @Override
+            public void write(DataOutput out, User user) throws IOException {
+                out.writeBoolean(user.getId() != null);
+                if (user.getId() != null) {
+                    out.writeLong(user.getId());
+                }
+                writeString(out, user.getName());
+                out.writeBoolean(user.getLastUpdate() != null);
+                if (user.getLastUpdate() != null) {
+                    out.writeLong(user.getLastUpdate().toEpochDay());
+                }
+            }
+
+            @Override
+            public User read(DataInput in) throws IOException {
+                User user = new User();
+                user.setId(in.readBoolean() ? in.readLong() : null);
+                user.setName(readString(in));
+                user.setLastUpdate(in.readBoolean() ? LocalDate.ofEpochDay(in.readLong()) : null);
+                return user;
+            }
+        };
+    }
+
+    public static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        // writeUTF 는 64KB 제한이 있어 길이를 직접 쓴다
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    public static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
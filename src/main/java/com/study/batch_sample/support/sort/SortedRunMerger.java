@@ -0,0 +1,107 @@
+package com.study.batch_sample.support.sort;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * 정렬된 run 파일들을 k-way 병합한다.
+ * 각 run 의 맨 앞 record 만 힙에 올려두므로 메모리는 run 수 x 읽기 버퍼 크기만큼만 쓴다.
+ * 비교 결과가 같으면 앞쪽 run 을 먼저 내보내 run 안의 정렬이 stable 하면 전체도 stable 하다.
+ */
+public class SortedRunMerger<T> implements Closeable {
+
+    private final RecordCodec<T> codec;
+    private final List<RunCursor<T>> cursors = new ArrayList<>();
+    private final PriorityQueue<RunCursor<T>> heap;
+    private long remaining;
+
+    public SortedRunMerger(List<Path> runs, RecordCodec<T> codec, Comparator<? super T> comparator, int bufferSize) throws IOException {
+        this.codec = codec;
+        Comparator<RunCursor<T>> byHead = (a, b) -> comparator.compare(a.head, b.head);
+        this.heap = new PriorityQueue<>(Math.max(1, runs.size()), byHead.thenComparingInt(cursor -> cursor.index));
+
+        try {
+            for (int i = 0; i < runs.size(); i++) {
+                RunCursor<T> cursor = new RunCursor<>(i, SortedRuns.open(runs.get(i), bufferSize));
+                cursors.add(cursor);
+                remaining += cursor.remaining;
+                if (cursor.advance(codec)) {
+                    heap.add(cursor);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * 다음 record. 모두 읽었으면 null
+     */
+    public T next() throws IOException {
+        RunCursor<T> cursor = heap.poll();
+        if (cursor == null) {
+            return null;
+        }
+        T item = cursor.head;
+        if (cursor.advance(codec)) {
+            heap.add(cursor);
+        }
+        remaining--;
+        return item;
+    }
+
+    /**
+     * 아직 내보내지 않은 record 수
+     */
+    public long remaining() {
+        return remaining;
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (RunCursor<T> cursor : cursors) {
+            try {
+                cursor.in.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        cursors.clear();
+        heap.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static final class RunCursor<T> {
+
+        private final int index;
+        private final DataInputStream in;
+        private long remaining;
+        private T head;
+
+        private RunCursor(int index, DataInputStream in) throws IOException {
+            this.index = index;
+            this.in = in;
+            this.remaining = in.readLong();
+        }
+
+        private boolean advance(RecordCodec<T> codec) throws IOException {
+            if (remaining == 0) {
+                head = null;
+                return false;
+            }
+            head = codec.read(in);
+            remaining--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.study.batch_sample.support.sort;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 정렬 run 파일 입출력.
+ * 파일 형식은 [record 수(long)][RecordCodec 로 쓴 record...] 이다.
+ */
+public final class SortedRuns {
+
+    public static final int IO_BUFFER_SIZE = 64 * 1024;
+
+    // job ExecutionContext 에 run 목록/임시 디렉토리를 남기는 키 (앞에 정렬 이름이 붙는다)
+    public static final String RUNS_SUFFIX = ".runs";
+    public static final String DIRECTORY_SUFFIX = ".directory";
+
+    private SortedRuns() {
+    }
+
+    public static String runsKey(String name) {
+        return name + RUNS_SUFFIX;
+    }
+
+    public static String directoryKey(String name) {
+        return name + DIRECTORY_SUFFIX;
+    }
+
+    public static <T> Path write(Path file, List<? extends T> sortedItems, RecordCodec<T> codec) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), IO_BUFFER_SIZE))) {
+            out.writeLong(sortedItems.size());
+            for (T item : sortedItems) {
+                codec.write(out, item);
+            }
+        }
+        return file;
+    }
+
+    /**
+     * 여러 run 을 하나의 run 으로 병합한다. (fan-in 을 줄이는 중간 병합 단계)
+     */
+    public static <T> Path merge(Path file, List<Path> runs, RecordCodec<T> codec, Comparator<? super T> comparator) throws IOException {
+        try (SortedRunMerger<T> merger = new SortedRunMerger<>(runs, codec, comparator, IO_BUFFER_SIZE);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), IO_BUFFER_SIZE))) {
+            out.writeLong(merger.remaining());
+            T item;
+            while ((item = merger.next()) != null) {
+                codec.write(out, item);
+            }
+        }
+        return file;
+    }
+
+    static DataInputStream open(Path file, int bufferSize) throws IOException {
+        return new DataInputStream(new BufferedInputStream(Files.newInputStream(file), bufferSize));
+    }
+
+    public static String join(Collection<Path> runs) {
+        return runs.stream().map(Path::toString).collect(Collectors.joining(File.pathSeparator));
+    }
+
+    public static List<Path> split(String runs) {
+        if (runs == null || runs.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.stream(runs.split(File.pathSeparator)).map(Path::of).toList();
+    }
+
+    /**
+     * 임시 디렉토리와 그 안의 run 파일을 지운다.
+     */
+    public static void deleteDirectory(Path directory) throws IOException {
+        if (directory == null || !Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+}
@@ -0,0 +1,39 @@
+package com.study.batch_sample.support.sort;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * job 이 COMPLETED 로 끝나면 정렬 run 임시 디렉토리를 지운다.
+ * 실패/중지된 경우에는 재시작 때 병합 step 이 다시 읽을 수 있도록 남겨둔다.
+ */
+@Slf4j
+public class SortedRunsCleanupListener implements JobExecutionListener {
+
+    private final String name;
+
+    public SortedRunsCleanupListener(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        if (jobExecution.getStatus() != BatchStatus.COMPLETED) {
+            return;
+        }
+        String directory = jobExecution.getExecutionContext().getString(SortedRuns.directoryKey(name), null);
+        if (directory == null) {
+            return;
+        }
+        try {
+            SortedRuns.deleteDirectory(Path.of(directory));
+        } catch (IOException e) {
+            log.warn("{} : failed to delete sort runs in {}", name, directory, e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.study.batch_sample.support.sort;
+
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import org.springframework.util.ClassUtils;
+
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * {@link ExternalSortTasklet} 가 만든 run 파일들을 k-way 병합하며 정렬 순서대로 읽는 reader.
+ * run 목록은 보통 @StepScope 로 #{jobExecutionContext['{name}.runs']} 를 받아 {@link SortedRuns#split} 로 넘긴다.
+ * 재시작하면 read.count 만큼 다시 읽고 건너뛴다. (run 파일은 job 이 COMPLETED 될 때까지 남아 있다)
+ */
+public class SortedRunsItemReader<T> extends AbstractItemCountingItemStreamItemReader<T> {
+
+    private final List<Path> runs;
+    private final RecordCodec<T> codec;
+    private final Comparator<? super T> comparator;
+
+    private SortedRunMerger<T> merger;
+
+    public SortedRunsItemReader(List<Path> runs, RecordCodec<T> codec, Comparator<? super T> comparator) {
+        setName(ClassUtils.getShortName(SortedRunsItemReader.class));
+        this.runs = runs;
+        this.codec = codec;
+        this.comparator = comparator;
+    }
+
+    @Override
+    protected void doOpen() throws Exception {
+        merger = new SortedRunMerger<>(runs, codec, comparator, SortedRuns.IO_BUFFER_SIZE);
+    }
+
+    @Override
+    protected T doRead() throws Exception {
+        return merger.next();
+    }
+
+    @Override
+    protected void doClose() throws Exception {
+        if (merger != null) {
+            merger.close();
+            merger = null;
+        }
+    }
+}
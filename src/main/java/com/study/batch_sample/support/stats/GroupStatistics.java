@@ -0,0 +1,92 @@
+package com.study.batch_sample.support.stats;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * 그룹 하나의 통계. 값 분포(quantile sketch)와 서로 다른 키 개수(HyperLogLog)를 고정 메모리로 유지한다.
+ */
+public class GroupStatistics {
+
+    private static final byte FORMAT_VERSION = 2;
+
+    private final QuantileSketch values;
+    private final HyperLogLog distinct;
+
+    public GroupStatistics() {
+        this(HyperLogLog.DEFAULT_PRECISION);
+    }
+
+    public GroupStatistics(int distinctPrecision) {
+        this(new QuantileSketch(), new HyperLogLog(distinctPrecision));
+    }
+
+    private GroupStatistics(QuantileSketch values, HyperLogLog distinct) {
+        this.values = values;
+        this.distinct = distinct;
+    }
+
+    void add(double value, CharSequence distinctKey) {
+        values.add(value);
+        if (distinctKey != null) {
+            distinct.add(distinctKey);
+        }
+    }
+
+    public void merge(GroupStatistics other) {
+        values.merge(other.values);
+        distinct.merge(other.distinct);
+    }
+
+    public long getCount() {
+        return values.getCount();
+    }
+
+    public double getMin() {
+        return values.getMin();
+    }
+
+    public double getMax() {
+        return values.getMax();
+    }
+
+    public double getAverage() {
+        return values.getCount() == 0 ? Double.NaN : values.getSum() / values.getCount();
+    }
+
+    public double quantile(double q) {
+        return values.quantile(q);
+    }
+
+    public long getDistinctCount() {
+        return distinct.estimate();
+    }
+
+    /**
+     * ExecutionContext 에 넣을 수 있도록 Base64 문자열로 직렬화한다.
+     */
+    public String encode() {
+        byte[] sketch = values.toBytes();
+        byte[] hll = distinct.toBytes();
+        byte[] bytes = ByteBuffer.allocate(1 + 4 + sketch.length + hll.length)
+                .put(FORMAT_VERSION)
+                .putInt(sketch.length)
+                .put(sketch)
+                .put(hll)
+                .array();
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+
+    public static GroupStatistics decode(String encoded) {
+        ByteBuffer buffer = ByteBuffer.wrap(Base64.getDecoder().decode(encoded));
+        byte version = buffer.get();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported GroupStatistics format: " + version);
+        }
+        byte[] sketch = new byte[buffer.getInt()];
+        buffer.get(sketch);
+        byte[] hll = new byte[buffer.remaining()];
+        buffer.get(hll);
+        return new GroupStatistics(QuantileSketch.fromBytes(sketch), HyperLogLog.fromBytes(hll));
+    }
+}
@@ -0,0 +1,44 @@
+package com.study.batch_sample.support.stats;
+
+/**
+ * sketch 에서 쓰는 64bit 해시. (FNV-1a + murmur3 fmix64 finalizer)
+ * 문자열을 byte[] 로 바꾸지 않고 char 단위로 바로 해시한다.
+ */
+public final class Hashing {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private Hashing() {
+    }
+
+    public static long hash64(CharSequence value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            hash = (hash ^ (c & 0xff)) * FNV_PRIME;
+            hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+        }
+        return mix64(hash);
+    }
+
+    public static long hash64(long value) {
+        return mix64(value ^ FNV_OFFSET_BASIS);
+    }
+
+    /**
+     * 필드별 해시를 순서를 구분해서 합친다. (a, b) 와 (b, a) 는 다른 값이 된다
+     */
+    public static long combine(long hash, long value) {
+        return mix64(hash * FNV_PRIME + value);
+    }
+
+    public static long mix64(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
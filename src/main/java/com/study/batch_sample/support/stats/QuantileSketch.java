@@ -0,0 +1,206 @@
+package com.study.batch_sample.support.stats;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * 상대 오차를 보장하는 고정 메모리 quantile sketch. (DDSketch 방식)
+ *
+ * 값 v 는 ceil(log_gamma(v)) 번째 bin 에 세어지며, gamma = (1 + a) / (1 - a) 이므로
+ * quantile 결과는 실제 값과 상대 오차 a 이내이다. bin 수가 maxBins 를 넘으면 가장 작은 bin 들을 합친다.
+ * (큰 값 쪽 quantile 의 정확도를 유지한다)
+ * 음수는 지원하지 않는다.
+ */
+public class QuantileSketch {
+
+    public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+    public static final int DEFAULT_MAX_BINS = 2048;
+
+    private final double relativeAccuracy;
+    private final int maxBins;
+    private final double gamma;
+    private final double logGamma;
+
+    private long[] bins;
+    private int offset;       // bins[0] 의 index
+    private int lowIndex;     // 값이 들어있는 가장 작은 index
+    private int highIndex;    // 값이 들어있는 가장 큰 index
+    private boolean binsEmpty = true;
+
+    private long zeroCount;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private double sum;
+
+    public QuantileSketch() {
+        this(DEFAULT_RELATIVE_ACCURACY, DEFAULT_MAX_BINS);
+    }
+
+    public QuantileSketch(double relativeAccuracy, int maxBins) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("relativeAccuracy must be between 0 and 1: " + relativeAccuracy);
+        }
+        if (maxBins < 2) {
+            throw new IllegalArgumentException("maxBins must be at least 2: " + maxBins);
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.maxBins = maxBins;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    public void add(double value) {
+        if (value < 0 || Double.isNaN(value)) {
+            throw new IllegalArgumentException("QuantileSketch only accepts non-negative values: " + value);
+        }
+        if (value == 0) {
+            zeroCount++;
+        } else {
+            increment((int) Math.ceil(Math.log(value) / logGamma), 1);
+        }
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * q (0 ~ 1) 위치의 값. 비어 있으면 NaN.
+     */
+    public double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("quantile must be between 0 and 1: " + q);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) Math.floor(q * (count - 1));
+        if (rank < zeroCount) {
+            return 0;
+        }
+        long cumulative = zeroCount;
+        for (int index = lowIndex; index <= highIndex; index++) {
+            cumulative += bins[index - offset];
+            if (cumulative > rank) {
+                return Math.max(min, Math.min(max, valueOf(index)));
+            }
+        }
+        return max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMin() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    public double getMax() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public void merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy || other.maxBins != maxBins) {
+            throw new IllegalArgumentException("Cannot merge sketches with different relativeAccuracy / maxBins");
+        }
+        if (other.count == 0) {
+            return;
+        }
+        if (!other.binsEmpty) {
+            for (int index = other.lowIndex; index <= other.highIndex; index++) {
+                long binCount = other.bins[index - other.offset];
+                if (binCount > 0) {
+                    increment(index, binCount);
+                }
+            }
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    private double valueOf(int index) {
+        // bin (gamma^(i-1), gamma^i] 의 대표값
+        return 2 * Math.pow(gamma, index) / (gamma + 1);
+    }
+
+    private void increment(int index, long binCount) {
+        int newLow = binsEmpty ? index : Math.min(lowIndex, index);
+        int newHigh = binsEmpty ? index : Math.max(highIndex, index);
+        if (newHigh - newLow >= maxBins) {
+            // 범위가 넘치면 낮은 쪽 bin 들을 newLow 로 합친다
+            newLow = newHigh - maxBins + 1;
+        }
+        relayout(newLow, newHigh);
+        lowIndex = newLow;
+        highIndex = newHigh;
+        binsEmpty = false;
+        bins[Math.max(index, newLow) - offset] += binCount;
+    }
+
+    private void relayout(int newLow, int newHigh) {
+        boolean collapse = !binsEmpty && lowIndex < newLow;
+        if (bins != null && !collapse && newLow >= offset && newHigh < offset + bins.length) {
+            return;
+        }
+
+        long[] next = new long[maxBins];
+        // 남는 칸은 양쪽으로 나눠서 다음 확장 때 다시 옮기지 않도록 한다
+        int nextOffset = newLow - (maxBins - (newHigh - newLow + 1)) / 2;
+        if (!binsEmpty) {
+            for (int index = lowIndex; index <= highIndex; index++) {
+                next[Math.max(index, newLow) - nextOffset] += bins[index - offset];
+            }
+        }
+        bins = next;
+        offset = nextOffset;
+    }
+
+    /**
+     * bin 개수는 varint 로 쓴다. (빈 bin 은 1byte)
+     */
+    public byte[] toBytes() {
+        int binLength = binsEmpty ? 0 : highIndex - lowIndex + 1;
+        ByteBuffer buffer = ByteBuffer.allocate(8 + 4 + 8 * 5 + 4 + 4 + VarInts.MAX_VAR_LONG_BYTES * binLength)
+                .putDouble(relativeAccuracy)
+                .putInt(maxBins)
+                .putLong(count)
+                .putLong(zeroCount)
+                .putDouble(min)
+                .putDouble(max)
+                .putDouble(sum)
+                .putInt(lowIndex)
+                .putInt(binLength);
+        for (int i = 0; i < binLength; i++) {
+            VarInts.putVarLong(buffer, bins[lowIndex + i - offset]);
+        }
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    public static QuantileSketch fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        QuantileSketch sketch = new QuantileSketch(buffer.getDouble(), buffer.getInt());
+        sketch.count = buffer.getLong();
+        sketch.zeroCount = buffer.getLong();
+        sketch.min = buffer.getDouble();
+        sketch.max = buffer.getDouble();
+        sketch.sum = buffer.getDouble();
+        int low = buffer.getInt();
+        int binLength = buffer.getInt();
+        for (int i = 0; i < binLength; i++) {
+            long binCount = VarInts.getVarLong(buffer);
+            if (binCount > 0) {
+                sketch.increment(low + i, binCount);
+            }
+        }
+        return sketch;
+    }
+}
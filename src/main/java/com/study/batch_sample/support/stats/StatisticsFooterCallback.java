@@ -0,0 +1,48 @@
+package com.study.batch_sample.support.stats;
+
+import org.springframework.batch.item.file.FlatFileFooterCallback;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+/**
+ * StreamingStatistics 의 그룹별 결과를 footer 에 한 줄씩 쓴다.
+ * 예) [Female] 건수: 120, 나이 min/p50/p90/p99/max: 20/34.8/51.0/59.6/60, 평균: 35.2, 이름 종류(근사): 97
+ */
+public class StatisticsFooterCallback implements FlatFileFooterCallback {
+
+    private final StreamingStatistics<?> statistics;
+    private final String valueLabel;
+    private final String distinctLabel;
+
+    public StatisticsFooterCallback(StreamingStatistics<?> statistics, String valueLabel, String distinctLabel) {
+        this.statistics = statistics;
+        this.valueLabel = valueLabel;
+        this.distinctLabel = distinctLabel;
+    }
+
+    @Override
+    public void writeFooter(Writer writer) throws IOException {
+        for (Map.Entry<String, GroupStatistics> entry : statistics.getGroups().entrySet()) {
+            GroupStatistics group = entry.getValue();
+            writer.write(String.format("[%s] 건수: %d, %s min/p50/p90/p99/max: %s/%.1f/%.1f/%.1f/%s, 평균: %.1f, %s 종류(근사): %d",
+                    entry.getKey(),
+                    group.getCount(),
+                    valueLabel,
+                    format(group.getMin()),
+                    group.quantile(0.5),
+                    group.quantile(0.9),
+                    group.quantile(0.99),
+                    format(group.getMax()),
+                    group.getAverage(),
+                    distinctLabel,
+                    group.getDistinctCount()));
+            writer.write(System.lineSeparator());
+        }
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value);
+    }
+}
@@ -0,0 +1,213 @@
+package com.study.batch_sample.support.stats;
+
+import com.study.batch_sample.support.aggregate.ExecutionContextMergeable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamSupport;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 쓰기에 성공한 item 을 그룹별로 나누어 값의 분포(min / max / 백분위)와 서로 다른 키 개수를 근사 집계한다.
+ * 그룹마다 메모리가 고정이므로 row 수와 상관없이 사용할 수 있다.
+ *
+ * ItemAggregator 와 같은 방식으로 동작한다.
+ * - afterWrite 는 스레드별 임시 통계에 모으고, update(커밋 직전) 에서 본 통계에 합친다.
+ * - sketch 는 메모리에 두고, checkpointInterval 번 커밋마다와 afterStep 에서만 직렬화해 ExecutionContext 에 저장한다.
+ *   open 에서 복원한다. 프로세스가 비정상 종료되면 마지막 checkpoint 이후 커밋된 값은 재시작 후 통계에서 빠진다.
+ * - ExecutionContext 는 커밋마다 meta DB 에 통째로 저장되므로 직렬화 크기가 maxEncodedBytes 를 넘으면 실패시킨다.
+ *   (MySQL 의 SERIALIZED_CONTEXT 는 TEXT, 64KB) 그룹이 많으면 distinctPrecision 을 낮춘다.
+ * - 파티션별 결과는 {@link com.study.batch_sample.support.aggregate.MergingStepExecutionAggregator} 로 합친다.
+ * <pre>
+ *     .listener((ChunkListener) statistics)
+ *     .listener((StepExecutionListener) statistics)
+ *     .stream(statistics)
+ * </pre>
+ */
+@Slf4j
+public class StreamingStatistics<T> extends ItemStreamSupport
+        implements ItemWriteListener<T>, ChunkListener, StepExecutionListener, ExecutionContextMergeable {
+
+    private static final String GROUP_PREFIX = "group.";
+
+    // 3.3% 오차, dense 로 직렬화해도 그룹당 768byte
+    public static final int DEFAULT_DISTINCT_PRECISION = 10;
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 100;
+    public static final int DEFAULT_MAX_ENCODED_BYTES = 32 * 1024;
+
+    private final Function<? super T, ?> groupExtractor;
+    private final ToDoubleFunction<? super T> valueExtractor;
+    private final Function<? super T, ? extends CharSequence> distinctExtractor;
+
+    private final Map<String, GroupStatistics> groups = new HashMap<>();
+    private final ThreadLocal<Map<String, GroupStatistics>> pending = new ThreadLocal<>();
+
+    private int distinctPrecision = DEFAULT_DISTINCT_PRECISION;
+    private int checkpointInterval = DEFAULT_CHECKPOINT_INTERVAL;
+    private int maxEncodedBytes = DEFAULT_MAX_ENCODED_BYTES;
+    private int commitsSinceCheckpoint;
+
+    /**
+     * @param groupExtractor    그룹 키 (예: 성별)
+     * @param valueExtractor    분포를 볼 값 (예: 나이, 음수 불가)
+     * @param distinctExtractor 서로 다른 개수를 셀 키 (예: 이름)
+     */
+    public StreamingStatistics(Function<? super T, ?> groupExtractor,
+                               ToDoubleFunction<? super T> valueExtractor,
+                               Function<? super T, ? extends CharSequence> distinctExtractor) {
+        this.groupExtractor = groupExtractor;
+        this.valueExtractor = valueExtractor;
+        this.distinctExtractor = distinctExtractor;
+        setName(ClassUtils.getShortName(StreamingStatistics.class));
+    }
+
+    public void setDistinctPrecision(int distinctPrecision) {
+        this.distinctPrecision = distinctPrecision;
+    }
+
+    /**
+     * 몇 번의 커밋마다 ExecutionContext 에 저장할지. 1 이면 매 커밋마다 저장한다.
+     */
+    public void setCheckpointInterval(int checkpointInterval) {
+        Assert.isTrue(checkpointInterval > 0, "checkpointInterval must be positive");
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    public void setMaxEncodedBytes(int maxEncodedBytes) {
+        this.maxEncodedBytes = maxEncodedBytes;
+    }
+
+    /**
+     * 커밋된 통계를 그룹 키 순서로 돌려준다.
+     */
+    public synchronized Map<String, GroupStatistics> getGroups() {
+        return new TreeMap<>(groups);
+    }
+
+    @Override
+    public synchronized void open(ExecutionContext executionContext) throws ItemStreamException {
+        super.open(executionContext);
+        groups.clear();
+        readGroups(executionContext, groups);
+        pending.remove();
+        commitsSinceCheckpoint = 0;
+    }
+
+    @Override
+    public synchronized void update(ExecutionContext executionContext) throws ItemStreamException {
+        super.update(executionContext);
+        // update 는 chunk 트랜잭션 커밋 직전에 호출된다
+        Map<String, GroupStatistics> values = pending.get();
+        if (values != null) {
+            mergeInto(groups, values);
+            pending.remove();
+        }
+        if (++commitsSinceCheckpoint >= checkpointInterval) {
+            writeGroups(groups, executionContext);
+            commitsSinceCheckpoint = 0;
+        }
+    }
+
+    /**
+     * 마지막 checkpoint 이후 커밋된 값까지 저장한다. (step 의 마지막 ExecutionContext 저장 전에 호출된다)
+     * 실패한 step 도 커밋된 chunk 까지의 통계를 남겨 재시작에 쓴다.
+     */
+    @Override
+    public synchronized ExitStatus afterStep(StepExecution stepExecution) {
+        try {
+            writeGroups(groups, stepExecution.getExecutionContext());
+            commitsSinceCheckpoint = 0;
+            return null;
+        } catch (IllegalStateException e) {
+            // afterStep 의 예외는 step 이 로그만 남기고 무시하므로 직접 실패 처리한다
+            log.error("{} : {}", getName(), e.getMessage());
+            stepExecution.addFailureException(e);
+            stepExecution.setStatus(BatchStatus.FAILED);
+            return ExitStatus.FAILED.addExitDescription(e);
+        }
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        pending.remove();
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        pending.remove();
+    }
+
+    @Override
+    public void afterWrite(Chunk<? extends T> items) {
+        Map<String, GroupStatistics> values = pending.get();
+        if (values == null) {
+            values = new HashMap<>();
+            pending.set(values);
+        }
+        for (T item : items) {
+            String group = String.valueOf(groupExtractor.apply(item));
+            values.computeIfAbsent(group, key -> new GroupStatistics(distinctPrecision))
+                    .add(valueExtractor.applyAsDouble(item), distinctExtractor.apply(item));
+        }
+    }
+
+    @Override
+    public void merge(Collection<ExecutionContext> partials, ExecutionContext target) {
+        Map<String, GroupStatistics> merged = new HashMap<>();
+        for (ExecutionContext partial : partials) {
+            Map<String, GroupStatistics> partialGroups = new HashMap<>();
+            readGroups(partial, partialGroups);
+            mergeInto(merged, partialGroups);
+        }
+        writeGroups(merged, target);
+    }
+
+    private void readGroups(ExecutionContext executionContext, Map<String, GroupStatistics> target) {
+        String prefix = getExecutionContextKey(GROUP_PREFIX);
+        for (Map.Entry<String, Object> entry : executionContext.entrySet()) {
+            if (entry.getKey().startsWith(prefix)) {
+                target.put(entry.getKey().substring(prefix.length()), GroupStatistics.decode((String) entry.getValue()));
+            }
+        }
+    }
+
+    private void writeGroups(Map<String, GroupStatistics> source, ExecutionContext executionContext) {
+        String prefix = getExecutionContextKey(GROUP_PREFIX);
+        Map<String, String> encoded = new HashMap<>();
+        long totalBytes = 0;
+        for (Map.Entry<String, GroupStatistics> entry : source.entrySet()) {
+            String value = entry.getValue().encode();
+            encoded.put(prefix + entry.getKey(), value);
+            totalBytes += prefix.length() + entry.getKey().length() + value.length();
+        }
+        if (totalBytes > maxEncodedBytes) {
+            throw new IllegalStateException(String.format(
+                    "Statistics for %d groups need %d bytes in the ExecutionContext (limit %d). Lower distinctPrecision or group by fewer keys",
+                    source.size(), totalBytes, maxEncodedBytes));
+        }
+        encoded.forEach(executionContext::putString);
+    }
+
+    private static void mergeInto(Map<String, GroupStatistics> target, Map<String, GroupStatistics> source) {
+        source.forEach((group, statistics) -> target.merge(group, statistics, (left, right) -> {
+            left.merge(right);
+            return left;
+        }));
+    }
+}
@@ -0,0 +1,34 @@
+package com.study.batch_sample.support.stats;
+
+import java.nio.ByteBuffer;
+
+/**
+ * sketch 직렬화용 가변 길이 정수 (LEB128, 음수 없음). 작은 값은 1byte 로 쓴다.
+ */
+final class VarInts {
+
+    static final int MAX_VAR_LONG_BYTES = 10;
+
+    private VarInts() {
+    }
+
+    static void putVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static long getVarLong(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+}
@@ -0,0 +1,113 @@
+package com.study.batch_sample.support.watermark;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.util.List;
+
+/**
+ * 증분 추출 job 의 시작 위치(watermark.from)를 정하는 JobExecutionListener.
+ *
+ * - 같은 job 의 마지막 COMPLETED 실행의 job ExecutionContext 에 남은 "watermark" 값부터 읽는다. (meta DB 에 저장됨)
+ * - job 파라미터 full=true 면 처음부터 다시 만든다. (이번 실행이 끝나면 새 watermark 가 다시 저장된다)
+ * - 이전 실행이 없거나 watermark 가 없으면 전체를 읽는다.
+ * - 실패한 실행을 재시작하면 그 실행이 정한 watermark.from 을 그대로 쓴다. (writer 는 저장된 파일 위치로 되돌아가 이어 쓴다)
+ * - 마지막 성공 실행 이후에 일부라도 쓰고 실패/중지된 instance 가 있으면 새 instance 는 시작하지 않는다.
+ *   같은 watermark 부터 다시 읽어 출력 파일 뒤에 붙이면 실패한 실행이 쓴 row 가 중복되기 때문이다.
+ *   실패한 instance 를 재시작하거나, 출력 파일을 정리한 뒤 ABANDONED 로 바꾸거나, full=true 로 다시 만든다.
+ *
+ * reader 는 @StepScope 로 만들고 #{jobExecutionContext['watermark.from']} 를 조건에 넣는다.
+ * 새 watermark 는 step 에 붙인 {@link WatermarkTracker} 가 저장한다.
+ */
+@Slf4j
+public class IncrementalExtractListener implements JobExecutionListener {
+
+    public static final String FROM_KEY = "watermark.from";
+    public static final String WATERMARK_KEY = "watermark";
+    public static final String FULL_PARAMETER = "full";
+
+    // 키는 양수라고 본다 (AUTO_INCREMENT / sequence id)
+    public static final long NO_WATERMARK = 0L;
+
+    private static final int INSTANCE_PAGE_SIZE = 20;
+
+    private final JobExplorer jobExplorer;
+
+    public IncrementalExtractListener(JobExplorer jobExplorer) {
+        this.jobExplorer = jobExplorer;
+    }
+
+    public static boolean isFullRun(JobParameters jobParameters) {
+        return Boolean.parseBoolean(jobParameters.getString(FULL_PARAMETER));
+    }
+
+    @Override
+    public void beforeJob(JobExecution jobExecution) {
+        String jobName = jobExecution.getJobInstance().getJobName();
+        ExecutionContext context = jobExecution.getExecutionContext();
+
+        if (context.containsKey(FROM_KEY)) {
+            // 재시작: 실패한 실행의 job ExecutionContext 가 복원된 상태
+            log.info("{} : restarting, extracting rows after watermark {}", jobName, context.get(FROM_KEY));
+            return;
+        }
+
+        long from;
+        if (isFullRun(jobExecution.getJobParameters())) {
+            from = NO_WATERMARK;
+            log.info("{} : full=true, extracting everything", jobName);
+        } else {
+            from = lastWatermark(jobName, jobExecution.getJobInstance());
+            log.info("{} : extracting rows after watermark {}", jobName, from);
+        }
+        context.putLong(FROM_KEY, from);
+    }
+
+    private long lastWatermark(String jobName, JobInstance current) {
+        for (int start = 0; ; start += INSTANCE_PAGE_SIZE) {
+            // 최신 instance 부터, instance 안에서는 최신 실행부터 돌려준다
+            List<JobInstance> instances = jobExplorer.getJobInstances(jobName, start, INSTANCE_PAGE_SIZE);
+            if (instances.isEmpty()) {
+                return NO_WATERMARK;
+            }
+            for (JobInstance instance : instances) {
+                if (instance.getId().equals(current.getId())) {
+                    continue;
+                }
+                List<JobExecution> executions = jobExplorer.getJobExecutions(instance);
+                if (executions.isEmpty()) {
+                    continue;
+                }
+                JobExecution latest = executions.get(0);
+                if (latest.getStatus() == BatchStatus.COMPLETED) {
+                    ExecutionContext context = latest.getExecutionContext();
+                    // 마지막 성공 실행에 watermark 가 없으면(기능 도입 전 실행) 전체를 다시 읽는다
+                    return context.containsKey(WATERMARK_KEY)
+                            ? ((Number) context.get(WATERMARK_KEY)).longValue()
+                            : NO_WATERMARK;
+                }
+                if (latest.isRunning()) {
+                    throw new IllegalStateException(jobName + " : instance " + instance.getInstanceId() + " is still running");
+                }
+                if (latest.getStatus() != BatchStatus.ABANDONED && hasWrittenItems(executions)) {
+                    throw new IllegalStateException(String.format(
+                            "%s : instance %d ended %s after writing rows. Restart it, or clean up its output and abandon it, or run with %s=true",
+                            jobName, instance.getInstanceId(), latest.getStatus(), FULL_PARAMETER));
+                }
+                // 아무것도 쓰지 못하고 실패했거나 ABANDONED 로 정리된 instance 는 건너뛴다
+            }
+        }
+    }
+
+    private static boolean hasWrittenItems(List<JobExecution> executions) {
+        return executions.stream()
+                .flatMap(execution -> execution.getStepExecutions().stream())
+                .anyMatch(stepExecution -> stepExecution.getWriteCount() > 0);
+    }
+}
@@ -0,0 +1,27 @@
+package com.study.batch_sample.support.watermark;
+
+import org.springframework.batch.core.JobParameter;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.launch.support.RunIdIncrementer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * RunIdIncrementer 와 같지만 이전 실행의 full 파라미터는 넘기지 않는다.
+ * (RunIdIncrementer 는 이전 파라미터를 그대로 이어받으므로 한 번 full=true 로 돌리면 계속 전체 추출이 된다)
+ * full=true 는 실행할 때 직접 지정한 경우에만 적용된다.
+ */
+public class WatermarkRunIdIncrementer extends RunIdIncrementer {
+
+    @Override
+    public JobParameters getNext(JobParameters parameters) {
+        JobParameters next = super.getNext(parameters);
+        if (!next.getParameters().containsKey(IncrementalExtractListener.FULL_PARAMETER)) {
+            return next;
+        }
+        Map<String, JobParameter<?>> nextParameters = new HashMap<>(next.getParameters());
+        nextParameters.remove(IncrementalExtractListener.FULL_PARAMETER);
+        return new JobParameters(nextParameters);
+    }
+}
@@ -0,0 +1,89 @@
+package com.study.batch_sample.support.watermark;
+
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.ItemReadListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamSupport;
+import org.springframework.util.ClassUtils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+/**
+ * 읽은 item 의 최대 키를 모아 step 이 성공하면 job ExecutionContext 의 "watermark" 로 올린다.
+ * 다음 실행의 {@link IncrementalExtractListener} 가 이 값부터 읽는다.
+ *
+ * - afterRead 에서는 스레드별 임시값에만 반영하고, update(커밋 직전) 에서 본값에 합친다. reader 의 재시작 위치와 같은 시점이다.
+ * - 본값은 step ExecutionContext 에도 저장되므로 실패한 실행을 재시작해도 이어서 계산한다.
+ * - 한 건도 읽지 않았으면 이전 watermark(watermark.from) 를 그대로 넘긴다.
+ *
+ * step 에는 listener 와 stream 으로 모두 등록한다.
+ * <pre>
+ *     .listener((StepExecutionListener) tracker)   // ItemReadListener 로도 함께 등록된다
+ *     .stream(tracker)
+ * </pre>
+ */
+public class WatermarkTracker<T> extends ItemStreamSupport implements ItemReadListener<T>, StepExecutionListener {
+
+    private static final String MAX_KEY = "max";
+
+    private final ToLongFunction<? super T> keyExtractor;
+
+    private final AtomicLong committedMax = new AtomicLong(IncrementalExtractListener.NO_WATERMARK);
+    // 아직 커밋되지 않은 최대 키 (스레드별)
+    private final ThreadLocal<long[]> pending = new ThreadLocal<>();
+
+    public WatermarkTracker(ToLongFunction<? super T> keyExtractor) {
+        setName(ClassUtils.getShortName(WatermarkTracker.class));
+        this.keyExtractor = keyExtractor;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        super.open(executionContext);
+        committedMax.set(IncrementalExtractListener.NO_WATERMARK);
+        String key = getExecutionContextKey(MAX_KEY);
+        if (executionContext.containsKey(key)) {
+            committedMax.set(((Number) executionContext.get(key)).longValue());
+        }
+        pending.remove();
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        super.update(executionContext);
+        long[] max = pending.get();
+        if (max != null) {
+            committedMax.accumulateAndGet(max[0], Math::max);
+            pending.remove();
+        }
+        executionContext.putLong(getExecutionContextKey(MAX_KEY), committedMax.get());
+    }
+
+    @Override
+    public void afterRead(T item) {
+        long[] max = pending.get();
+        if (max == null) {
+            max = new long[]{Long.MIN_VALUE};
+            pending.set(max);
+        }
+        max[0] = Math.max(max[0], keyExtractor.applyAsLong(item));
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        if (stepExecution.getStatus() != BatchStatus.COMPLETED) {
+            return null;
+        }
+        ExecutionContext jobContext = stepExecution.getJobExecution().getExecutionContext();
+        long from = jobContext.containsKey(IncrementalExtractListener.FROM_KEY)
+                ? ((Number) jobContext.get(IncrementalExtractListener.FROM_KEY)).longValue()
+                : IncrementalExtractListener.NO_WATERMARK;
+        jobContext.putLong(IncrementalExtractListener.WATERMARK_KEY, Math.max(from, committedMax.get()));
+        return null;
+    }
+}
@@ -1,25 +1,29 @@
 package com.study.batch_sample.week4.batch;
 
+import com.study.batch_sample.common.Customer;
+import com.study.batch_sample.support.aggregate.ItemAggregator;
 import org.springframework.batch.item.file.FlatFileFooterCallback;
 
 import java.io.IOException;
 import java.io.Writer;
-import java.util.concurrent.ConcurrentHashMap;
 
 public class CustomerFooter implements FlatFileFooterCallback {
 
-    ConcurrentHashMap<String, Integer> aggregateCustomers;
+    public static final String TOTAL_CUSTOMERS = "TOTAL_CUSTOMERS";
+    public static final String TOTAL_AGES = "TOTAL_AGES";
 
-    public CustomerFooter(ConcurrentHashMap<String, Integer> aggregateCustomers) {
+    ItemAggregator<Customer> aggregateCustomers;
+
+    public CustomerFooter(ItemAggregator<Customer> aggregateCustomers) {
         this.aggregateCustomers = aggregateCustomers;
     }
 
     @Override
     public void writeFooter(Writer writer) throws IOException {
-        writer.write("총 고객 수: " + aggregateCustomers.get("TOTAL_CUSTOMERS"));
+        writer.write("총 고객 수: " + aggregateCustomers.get(TOTAL_CUSTOMERS));
 
         writer.write(System.lineSeparator());
-        writer.write("총 나이: " + aggregateCustomers.get("TOTAL_AGES"));
+        writer.write("총 나이: " + aggregateCustomers.get(TOTAL_AGES));
         writer.write("\n"); // 줄바꿈 추가
     }
-}
\ No newline at end of file
+}
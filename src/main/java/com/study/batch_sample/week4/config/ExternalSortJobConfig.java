@@ -0,0 +1,129 @@
+package com.study.batch_sample.week4.config;
+
+import com.study.batch_sample.common.Customer;
+import com.study.batch_sample.common.CustomerLineCodec;
+import com.study.batch_sample.support.chunk.ItemSizeEstimators;
+import com.study.batch_sample.support.sort.ExternalSortTasklet;
+import com.study.batch_sample.support.sort.RecordCodecs;
+import com.study.batch_sample.support.sort.SortedRuns;
+import com.study.batch_sample.support.sort.SortedRunsCleanupListener;
+import com.study.batch_sample.support.sort.SortedRunsItemReader;
+import com.study.batch_sample.config.GlobalStepListenerConfigurer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.support.RunIdIncrementer;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.file.FlatFileItemReader;
+import org.springframework.batch.item.file.FlatFileItemWriter;
+import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
+import org.springframework.batch.item.file.builder.FlatFileItemWriterBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.util.Comparator;
+
+/**
+ * 고객 파일을 나이(기본) 또는 이름(job 파라미터 sortBy=name) 순으로 정렬해서 쓰는 job.
+ * 1. customerSortStep : 메모리 예산만큼씩 읽어 정렬한 run 을 임시 파일로 내린다. (코어 수만큼 병렬)
+ * 2. sortedCustomerWriteStep : run 들을 k-way 병합하며 읽어 파일로 쓴다.
+ */
+@Slf4j
+//@Configuration
+public class ExternalSortJobConfig {
+
+    public static final int CHUNK_SIZE = 1000;
+    public static final long SORT_MEMORY_BUDGET = 64 * 1024 * 1024;
+    public static final String ENCODING = "UTF-8";
+    public static final String SORT_NAME = "customerSort";
+    public static final String EXTERNAL_SORT_JOB = "EXTERNAL_SORT_JOB";
+
+    public static Comparator<Customer> customerOrder(String sortBy) {
+        Comparator<Customer> byName = Comparator.comparing(Customer::getName, Comparator.nullsLast(Comparator.naturalOrder()));
+        if ("name".equals(sortBy)) {
+            return byName.thenComparingInt(Customer::getAge);
+        }
+        return Comparator.comparingInt(Customer::getAge).thenComparing(byName);
+    }
+
+    @Bean
+    public FlatFileItemReader<Customer> sortInputCustomerReader() {
+        return new FlatFileItemReaderBuilder<Customer>()
+                .name("sortInputCustomerReader")
+                .resource(new ClassPathResource("./customers.csv"))
+                .encoding(ENCODING)
+                .linesToSkip(1)
+                .lineMapper(new CustomerLineCodec())
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public ExternalSortTasklet<Customer> customerSortTasklet(
+            @Value("#{jobParameters['sortBy']}") String sortBy) {
+        return new ExternalSortTasklet<>(SORT_NAME, sortInputCustomerReader(), RecordCodecs.customer(),
+                customerOrder(sortBy), ItemSizeEstimators::customer, SORT_MEMORY_BUDGET,
+                Runtime.getRuntime().availableProcessors(), Path.of(System.getProperty("java.io.tmpdir"), "batch-sort"));
+    }
+
+    @Bean
+    @StepScope
+    public SortedRunsItemReader<Customer> sortedCustomerReader(
+            @Value("#{jobExecutionContext['customerSort.runs']}") String runs,
+            @Value("#{jobParameters['sortBy']}") String sortBy) {
+        SortedRunsItemReader<Customer> reader =
+                new SortedRunsItemReader<>(SortedRuns.split(runs), RecordCodecs.customer(), customerOrder(sortBy));
+        reader.setName("sortedCustomerReader");
+        return reader;
+    }
+
+    @Bean
+    public FlatFileItemWriter<Customer> sortedCustomerWriter() {
+        return new FlatFileItemWriterBuilder<Customer>()
+                .name("sortedCustomerWriter")
+                .resource(new FileSystemResource("./output/customer_sorted.csv"))
+                .encoding(ENCODING)
+                .lineAggregator(new CustomerLineCodec())
+                .build();
+    }
+
+    @Bean
+    public Step customerSortStep(JobRepository jobRepository, PlatformTransactionManager transactionManager) {
+        log.info("--------------------- Init customerSortStep ------------------------");
+
+        return new StepBuilder("customerSortStep", jobRepository)
+                .tasklet(customerSortTasklet(null), transactionManager)
+                .build();
+    }
+
+    @Bean
+    public Step sortedCustomerWriteStep(JobRepository jobRepository, PlatformTransactionManager transactionManager,
+                                        GlobalStepListenerConfigurer globalStepListenerConfigurer) {
+        log.info("--------------------- Init sortedCustomerWriteStep ------------------------");
+
+        return globalStepListenerConfigurer.apply(new StepBuilder("sortedCustomerWriteStep", jobRepository)
+                .<Customer, Customer>chunk(CHUNK_SIZE, transactionManager))
+                .reader(sortedCustomerReader(null, null))
+                .writer(sortedCustomerWriter())
+                .build();
+    }
+
+    @Bean
+    public Job externalSortJob(Step customerSortStep, Step sortedCustomerWriteStep, JobRepository jobRepository) {
+        log.info("--------------------- Init externalSortJob -------------------------");
+
+        return new JobBuilder(EXTERNAL_SORT_JOB, jobRepository)
+                .incrementer(new RunIdIncrementer())
+                .listener(new SortedRunsCleanupListener(SORT_NAME))
+                .start(customerSortStep)
+                .next(sortedCustomerWriteStep)
+                .build();
+    }
+}
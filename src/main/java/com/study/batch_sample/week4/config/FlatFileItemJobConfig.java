@@ -1,18 +1,25 @@
 package com.study.batch_sample.week4.config;
 
-import com.study.batch_sample.week4.batch.AggregateCustomerProcessor;
 import com.study.batch_sample.week4.batch.CustomerFooter;
 import com.study.batch_sample.week4.batch.CustomerHeader;
 import com.study.batch_sample.week4.batch.CustomerLineAggregator;
 import com.study.batch_sample.common.Customer;
+import com.study.batch_sample.common.CustomerLineCodec;
+import com.study.batch_sample.support.aggregate.ItemAggregator;
+import com.study.batch_sample.support.chunk.ByteBudgetCompletionPolicy;
+import com.study.batch_sample.support.chunk.ItemSizeEstimators;
+import com.study.batch_sample.support.stats.StatisticsFooterCallback;
+import com.study.batch_sample.support.stats.StreamingStatistics;
+import com.study.batch_sample.config.GlobalStepListenerConfigurer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ChunkListener;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.launch.support.RunIdIncrementer;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
-import org.springframework.batch.item.ItemProcessor;
 import org.springframework.batch.item.file.FlatFileItemReader;
 import org.springframework.batch.item.file.FlatFileItemWriter;
 import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
@@ -22,19 +29,23 @@ import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.transaction.PlatformTransactionManager;
 
-import java.util.concurrent.ConcurrentHashMap;
-
 @Slf4j
 //@Configuration
 public class FlatFileItemJobConfig {
 
     public static final int CHUNK_SIZE = 100;
+    public static final long MAX_CHUNK_BYTES = 8 * 1024 * 1024;
     public static final String ENCODING = "UTF-8";
     public static final String FLAT_FILE_CHUNK_JOB = "FLAT_FILE_CHUNK_JOB";
 
-    private ConcurrentHashMap<String , Integer> aggregateInfos = new ConcurrentHashMap<>();
+    // 쓰기에 성공한 고객 수 / 나이 합계. commit 마다 step ExecutionContext 에 저장되어 재시작해도 footer 값이 맞는다
+    private final ItemAggregator<Customer> aggregateInfos = new ItemAggregator<Customer>()
+            .count(CustomerFooter.TOTAL_CUSTOMERS)
+            .sum(CustomerFooter.TOTAL_AGES, Customer::getAge);
 
-    private final ItemProcessor<Customer, Customer> itemProcessor = new AggregateCustomerProcessor(aggregateInfos);
+    // 성별 나이 분포와 이름 종류 수 (고정 메모리 sketch)
+    private final StreamingStatistics<Customer> customerStatistics =
+            new StreamingStatistics<>(Customer::getGender, Customer::getAge, Customer::getName);
 
 
     @Bean
@@ -44,9 +55,7 @@ public class FlatFileItemJobConfig {
                 .resource(new ClassPathResource("./customers.csv"))
                 .encoding(ENCODING)
                 .linesToSkip(1)
-                .delimited().delimiter(",")
-                .names("name","age","gender")
-                .targetType(Customer.class)
+                .lineMapper(new CustomerLineCodec())
                 .build();
     }
 
@@ -56,24 +65,40 @@ public class FlatFileItemJobConfig {
                 .name("flatFileItemWriter")
                 .resource(new FileSystemResource("./output/customer_new.csv"))
                 .encoding(ENCODING)
-                .delimited().delimiter("\t")
-                .names("Name","Age","Gender")
                 .append(true)
+                // 출력 형식은 header(ID,AGE) 에 맞춰 name,age 그대로 둔다
                 .lineAggregator(new CustomerLineAggregator())
                 .headerCallback(new CustomerHeader())
-                .footerCallback(new CustomerFooter(aggregateInfos))
+                .footerCallback(writer -> {
+                    new CustomerFooter(aggregateInfos).writeFooter(writer);
+                    new StatisticsFooterCallback(customerStatistics, "나이", "이름").writeFooter(writer);
+                })
                 .build();
     }
 
+    /**
+     * 100 건 또는 추정 8MB 중 먼저 닿는 쪽에서 chunk 를 닫는다. (폭이 큰 row 가 몰려도 chunk 메모리가 일정하다)
+     */
+    @Bean
+    public ByteBudgetCompletionPolicy<Customer> customerChunkCompletionPolicy() {
+        return new ByteBudgetCompletionPolicy<>(CHUNK_SIZE, MAX_CHUNK_BYTES, ItemSizeEstimators::customer);
+    }
+
     @Bean
-    public Step flatFileStep(JobRepository jobRepository , PlatformTransactionManager transactionManager) {
+    public Step flatFileStep(JobRepository jobRepository , PlatformTransactionManager transactionManager ,
+                             GlobalStepListenerConfigurer globalStepListenerConfigurer) {
         log.info("--------------------- Init flatFileStep ------------------------");
 
-        return new StepBuilder("flatFileStep" , jobRepository)
-                .<Customer,Customer>chunk(CHUNK_SIZE, transactionManager)
+        return globalStepListenerConfigurer.apply(new StepBuilder("flatFileStep" , jobRepository)
+                .<Customer,Customer>chunk(customerChunkCompletionPolicy(), transactionManager))
                 .reader(flatFileItemReader())
-                .processor(itemProcessor)
                 .writer(flatFileItemWriter())
+                .listener(customerChunkCompletionPolicy())
+                .listener((ChunkListener) aggregateInfos)
+                .stream(aggregateInfos)
+                .listener((ChunkListener) customerStatistics)
+                .listener((StepExecutionListener) customerStatistics)
+                .stream(customerStatistics)
                 .build();
     }
 
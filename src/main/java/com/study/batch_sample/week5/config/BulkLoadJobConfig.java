@@ -0,0 +1,102 @@
+package com.study.batch_sample.week5.config;
+
+import com.study.batch_sample.common.Customer;
+import com.study.batch_sample.support.bulk.BulkLoadItemWriter;
+import com.study.batch_sample.support.checkpoint.DataSourceChunkCheckpoint;
+import com.study.batch_sample.support.file.CustomerCsvRecordMapper;
+import com.study.batch_sample.support.file.MappedCsvItemReader;
+import com.study.batch_sample.support.file.MappedCsvItemReaderBuilder;
+import com.study.batch_sample.config.GlobalStepListenerConfigurer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.support.RunIdIncrementer;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * customers.csv -> customer2 를 DB 의 bulk load(LOAD DATA LOCAL INFILE / CSVREAD) 로 적재한다.
+ * chunk 가 클수록 유리하므로 JdbcBatchItemConfig 보다 chunk 를 크게 잡는다.
+ *
+ * chunk 트랜잭션은 data DB(bulkLoadDataSource) 이고 job repository 는 meta DB 라서, chunk 안에서 저장되는
+ * step ExecutionContext 가 data DB 보다 먼저 commit 된다. 그 사이에 죽으면 meta 의 reader 위치만 앞서 있어 재시작 때 chunk 를 건너뛴다.
+ * 그래서 reader 위치를 {@link DataSourceChunkCheckpoint} 로 data DB 에도 같은 트랜잭션으로 저장하고, 재시작할 때는 그 값부터 읽는다.
+ */
+@Slf4j
+//@Configuration
+public class BulkLoadJobConfig {
+
+    public static final int CHUNK_SIZE = 5000;
+    public static final String BULK_LOAD_CHUNK_JOB = "BULK_LOAD_CHUNK_JOB";
+
+    // item 단위 지표 / JFR listener 등록 (config.BatchMetricsConfig)
+    @Autowired
+    GlobalStepListenerConfigurer globalStepListenerConfigurer;
+
+    /**
+     * customer2 가 있는 data DB 에 LOAD DATA LOCAL 을 허용한 별도 풀. (spring.datasource.bulk-load)
+     * 공용 dataSource 풀은 allowLoadLocalInfile 을 켜지 않는다.
+     */
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.bulk-load")
+    public DataSource bulkLoadDataSource() {
+        return DataSourceBuilder.create().build();
+    }
+
+    @Bean
+    public MappedCsvItemReader<Customer> bulkLoadCustomerReader() {
+        return new MappedCsvItemReaderBuilder<Customer>()
+                .name("bulkLoadCustomerReader")
+                .resource(new ClassPathResource("./customers.csv"))
+                .linesToSkip(1)
+                .delimiter(',')
+                .recordMapper(new CustomerCsvRecordMapper())
+                .build();
+    }
+
+    @Bean
+    public BulkLoadItemWriter<Customer> bulkLoadCustomerWriter() {
+        return new BulkLoadItemWriter<>(bulkLoadDataSource(), "customer2", List.of("name", "age", "gender"),
+                customer -> new Object[]{customer.getName(), customer.getAge(), customer.getGender()});
+    }
+
+    // reader 위치를 적재한 row 와 같은 data DB 트랜잭션으로 저장한다
+    @Bean
+    public DataSourceChunkCheckpoint bulkLoadCheckpoint() {
+        return new DataSourceChunkCheckpoint(bulkLoadDataSource(), bulkLoadCustomerReader());
+    }
+
+    @Bean
+    public Step bulkLoadStep(JobRepository jobRepository) {
+        log.info("------------------ Init bulkLoadStep -----------------");
+
+        // writer 가 chunk 트랜잭션의 커넥션에서 로드하도록 data DB 트랜잭션 매니저로 chunk 를 묶는다
+        return globalStepListenerConfigurer.apply(new StepBuilder("bulkLoadStep", jobRepository)
+                .<Customer, Customer>chunk(CHUNK_SIZE, new DataSourceTransactionManager(bulkLoadDataSource())))
+                .reader(bulkLoadCustomerReader())
+                .writer(bulkLoadCustomerWriter())
+                .listener((StepExecutionListener) bulkLoadCheckpoint())
+                .stream(bulkLoadCheckpoint())
+                .build();
+    }
+
+    @Bean
+    public Job bulkLoadJob(Step bulkLoadStep, JobRepository jobRepository) {
+        log.info("------------------ Init bulkLoadJob -----------------");
+        return new JobBuilder(BULK_LOAD_CHUNK_JOB, jobRepository)
+                .incrementer(new RunIdIncrementer())
+                .start(bulkLoadStep)
+                .build();
+    }
+}
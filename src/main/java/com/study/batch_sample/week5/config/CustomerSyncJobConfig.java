@@ -0,0 +1,124 @@
+package com.study.batch_sample.week5.config;
+
+import com.study.batch_sample.common.Customer;
+import com.study.batch_sample.support.checkpoint.DataSourceChunkCheckpoint;
+import com.study.batch_sample.support.dedup.ChangeSkippingItemWriter;
+import com.study.batch_sample.support.dedup.Fingerprints;
+import com.study.batch_sample.support.file.CustomerCsvRecordMapper;
+import com.study.batch_sample.support.file.MappedCsvItemReader;
+import com.study.batch_sample.support.file.MappedCsvItemReaderBuilder;
+import com.study.batch_sample.config.GlobalStepListenerConfigurer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.support.RunIdIncrementer;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.database.JdbcBatchItemWriter;
+import org.springframework.batch.item.database.builder.JdbcBatchItemWriterBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import javax.sql.DataSource;
+
+/**
+ * customers.csv 전체를 customer2 에 동기화하되, 이미 같은 내용으로 있는 row 는 DB 에 보내지 않는다.
+ * 바뀐 row 와 새 row 만 upsert 한다.
+ *
+ * upsert 는 customer2.name 의 unique index 로 기존 row 를 찾는다. index 가 없으면 바뀐 row 가 중복 insert 되므로
+ * writer 가 open 에서 확인하고 실패한다. (CREATE UNIQUE INDEX ux_customer2_name ON customer2 (name))
+ * chunk 트랜잭션은 data DB, job repository 는 meta DB 라서 reader 위치를 {@link DataSourceChunkCheckpoint} 로 data DB 에도 저장한다.
+ * (BulkLoadJobConfig 와 같은 이유. 그렇지 않으면 meta 만 commit 되고 죽었을 때 재시작이 그 chunk 를 건너뛴다)
+ */
+@Slf4j
+//@Configuration
+public class CustomerSyncJobConfig {
+
+    public static final int CHUNK_SIZE = 1000;
+    public static final String CUSTOMER_SYNC_CHUNK_JOB = "CUSTOMER_SYNC_CHUNK_JOB";
+
+    // customer2 가 있는 data DB
+    @Autowired
+    @Qualifier("dataSource")
+    DataSource dataSource;
+
+    // item 단위 지표 / JFR listener 등록 (config.BatchMetricsConfig)
+    @Autowired
+    GlobalStepListenerConfigurer globalStepListenerConfigurer;
+
+    @Bean
+    public MappedCsvItemReader<Customer> customerSyncReader() {
+        return new MappedCsvItemReaderBuilder<Customer>()
+                .name("customerSyncReader")
+                .resource(new ClassPathResource("./customers.csv"))
+                .linesToSkip(1)
+                .delimiter(',')
+                .recordMapper(new CustomerCsvRecordMapper())
+                .build();
+    }
+
+    @Bean
+    public JdbcBatchItemWriter<Customer> customerUpsertWriter() {
+        return new JdbcBatchItemWriterBuilder<Customer>()
+                .dataSource(dataSource)
+                .sql("INSERT INTO customer2 (name, age, gender) VALUES (:name, :age, :gender) "
+                        + "ON DUPLICATE KEY UPDATE age = VALUES(age), gender = VALUES(gender)")
+                .itemSqlParameterSourceProvider(new LambdaPropertySqlParameterSourceProvider<>(Customer.class))
+                // 이미 같은 값이면 MySQL 은 0 을 돌려준다 (fingerprint 충돌 등). 실패로 보지 않는다
+                .assertUpdates(false)
+                .build();
+    }
+
+    @Bean
+    public ChangeSkippingItemWriter<Customer> customerSyncWriter() {
+        ChangeSkippingItemWriter<Customer> writer = new ChangeSkippingItemWriter<>(
+                customerUpsertWriter(),
+                Fingerprints::customer,
+                dataSource,
+                "customer2",
+                "SELECT name, age, gender FROM customer2",
+                (rs, rowNum) -> {
+                    Customer customer = new Customer();
+                    customer.setName(rs.getString("name"));
+                    customer.setAge(rs.getInt("age"));
+                    customer.setGender(rs.getString("gender"));
+                    return customer;
+                });
+        // ON DUPLICATE KEY UPDATE 의 기준
+        writer.setUniqueKey("name");
+        return writer;
+    }
+
+    @Bean
+    public DataSourceChunkCheckpoint customerSyncCheckpoint() {
+        return new DataSourceChunkCheckpoint(dataSource, customerSyncReader());
+    }
+
+    @Bean
+    public Step customerSyncStep(JobRepository jobRepository) {
+        log.info("------------------ Init customerSyncStep -----------------");
+
+        // fingerprint 는 chunk 가 commit 된 뒤에 반영되므로 chunk 트랜잭션은 customer2 가 있는 data DB 기준이어야 한다
+        return globalStepListenerConfigurer.apply(new StepBuilder("customerSyncStep", jobRepository)
+                .<Customer, Customer>chunk(CHUNK_SIZE, new DataSourceTransactionManager(dataSource)))
+                .reader(customerSyncReader())
+                .writer(customerSyncWriter())
+                .listener((StepExecutionListener) customerSyncCheckpoint())
+                .stream(customerSyncCheckpoint())
+                .build();
+    }
+
+    @Bean
+    public Job customerSyncJob(Step customerSyncStep, JobRepository jobRepository) {
+        log.info("------------------ Init customerSyncJob -----------------");
+        return new JobBuilder(CUSTOMER_SYNC_CHUNK_JOB, jobRepository)
+                .incrementer(new RunIdIncrementer())
+                .start(customerSyncStep)
+                .build();
+    }
+}
@@ -0,0 +1,155 @@
+package com.study.batch_sample.week5.config;
+
+import com.study.batch_sample.common.Customer;
+import com.study.batch_sample.config.ConcurrentStepConfigurer;
+import com.study.batch_sample.support.aggregate.ItemAggregator;
+import com.study.batch_sample.support.aggregate.MergingStepExecutionAggregator;
+import com.study.batch_sample.support.file.CustomerCsvRecordMapper;
+import com.study.batch_sample.support.file.MappedCsvItemReader;
+import com.study.batch_sample.support.file.MappedCsvItemReaderBuilder;
+import com.study.batch_sample.support.partition.FileByteRangePartitioner;
+import com.study.batch_sample.support.partition.PartitionSizing;
+import com.study.batch_sample.support.stats.StreamingStatistics;
+import com.study.batch_sample.config.GlobalStepListenerConfigurer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.support.RunIdIncrementer;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.database.JdbcBatchItemWriter;
+import org.springframework.batch.item.database.builder.JdbcBatchItemWriterBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+/**
+ * customers.csv 하나를 줄 경계에 맞춘 바이트 구간으로 나누어 여러 worker step 이 동시에 읽고 적재한다.
+ * 각 파티션은 자기 구간 안의 바이트 위치를 따로 저장하므로 실패한 파티션만 이어서 재시작된다.
+ */
+@Slf4j
+//@Configuration
+public class FileRangePartitionJobConfig {
+
+    public static final int CHUNK_SIZE = 100;
+    public static final String FILE_RANGE_PARTITION_JOB = "FILE_RANGE_PARTITION_JOB";
+
+    @Autowired
+    DataSource dataSource;
+
+    // config.BatchTaskExecutorConfig 의 공용 executor (커넥션 풀 크기로 제한됨)
+    @Autowired
+    ConcurrentStepConfigurer concurrentStepConfigurer;
+
+    // item 단위 지표 / JFR listener 등록 (config.BatchMetricsConfig)
+    @Autowired
+    GlobalStepListenerConfigurer globalStepListenerConfigurer;
+
+    private final Resource customersCsv = new ClassPathResource("./customers.csv");
+
+    @Bean
+    public FileByteRangePartitioner customerFileRangePartitioner() {
+        return new FileByteRangePartitioner(customersCsv, 1);
+    }
+
+    @Bean
+    @StepScope
+    public MappedCsvItemReader<Customer> customerFileRangeItemReader(
+            @Value("#{stepExecutionContext['startOffset']}") Long startOffset,
+            @Value("#{stepExecutionContext['endOffset']}") Long endOffset) {
+        // 헤더는 partitioner 가 첫 구간에서 이미 제외했다
+        return new MappedCsvItemReaderBuilder<Customer>()
+                .name("customerFileRangeItemReader")
+                .resource(customersCsv)
+                .byteRange(startOffset, endOffset)
+                .delimiter(',')
+                .recordMapper(new CustomerCsvRecordMapper())
+                .build();
+    }
+
+    @Bean
+    public JdbcBatchItemWriter<Customer> customerFileRangeItemWriter() {
+        return new JdbcBatchItemWriterBuilder<Customer>()
+                .dataSource(dataSource)
+                .sql("INSERT INTO customer2 (name, age, gender) VALUES (:name, :age, :gender)")
+                .itemSqlParameterSourceProvider(new LambdaPropertySqlParameterSourceProvider<>(Customer.class))
+                .build();
+    }
+
+    /**
+     * 파티션마다 적재한 고객 수 / 나이 합계. manager step 이 끝나면 합친 값이 manager step 의 ExecutionContext 에 남는다.
+     */
+    @Bean
+    @StepScope
+    public ItemAggregator<Customer> customerFileRangeAggregator() {
+        return newCustomerAggregator();
+    }
+
+    private static ItemAggregator<Customer> newCustomerAggregator() {
+        ItemAggregator<Customer> aggregator = new ItemAggregator<Customer>()
+                .count("totalCustomers")
+                .sum("totalAges", Customer::getAge);
+        aggregator.setName("customerFileRangeAggregator");
+        return aggregator;
+    }
+
+    /**
+     * 파티션마다의 성별 나이 분포 / 이름 종류 수. manager step 에서 sketch 를 합친다.
+     */
+    @Bean
+    @StepScope
+    public StreamingStatistics<Customer> customerFileRangeStatistics() {
+        return newCustomerStatistics();
+    }
+
+    private static StreamingStatistics<Customer> newCustomerStatistics() {
+        StreamingStatistics<Customer> statistics = new StreamingStatistics<>(Customer::getGender, Customer::getAge, Customer::getName);
+        statistics.setName("customerFileRangeStatistics");
+        return statistics;
+    }
+
+    @Bean
+    public Step customerFileRangeWorkerStep(JobRepository jobRepository, PlatformTransactionManager transactionManager) {
+        return globalStepListenerConfigurer.apply(new StepBuilder("customerFileRangeWorkerStep", jobRepository)
+                .<Customer, Customer>chunk(CHUNK_SIZE, transactionManager))
+                .reader(customerFileRangeItemReader(null, null))
+                .writer(customerFileRangeItemWriter())
+                .listener((ChunkListener) customerFileRangeAggregator())
+                .stream(customerFileRangeAggregator())
+                .listener((ChunkListener) customerFileRangeStatistics())
+                .listener((StepExecutionListener) customerFileRangeStatistics())
+                .stream(customerFileRangeStatistics())
+                .build();
+    }
+
+    @Bean
+    public Step customerFileRangeManagerStep(JobRepository jobRepository, Step customerFileRangeWorkerStep) {
+        log.info("------------------ Init customerFileRangeManagerStep -----------------");
+
+        return new StepBuilder("customerFileRangeManagerStep", jobRepository)
+                .partitioner("customerFileRangeWorkerStep", customerFileRangePartitioner())
+                .step(customerFileRangeWorkerStep)
+                .gridSize(PartitionSizing.gridSize(dataSource))
+                .taskExecutor(concurrentStepConfigurer.getTaskExecutor())
+                .aggregator(new MergingStepExecutionAggregator(newCustomerAggregator(), newCustomerStatistics()))
+                .build();
+    }
+
+    @Bean
+    public Job customerFileRangeJob(Step customerFileRangeManagerStep, JobRepository jobRepository) {
+        log.info("------------------ Init customerFileRangeJob -----------------");
+        return new JobBuilder(FILE_RANGE_PARTITION_JOB, jobRepository)
+                .incrementer(new RunIdIncrementer())
+                .start(customerFileRangeManagerStep)
+                .build();
+    }
+}
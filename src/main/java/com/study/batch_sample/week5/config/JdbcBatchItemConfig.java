@@ -1,6 +1,11 @@
 package com.study.batch_sample.week5.config;
 
 import com.study.batch_sample.common.Customer;
+import com.study.batch_sample.support.file.CustomerCsvRecordMapper;
+import com.study.batch_sample.support.file.MappedCsvItemReader;
+import com.study.batch_sample.support.file.MappedCsvItemReaderBuilder;
+import com.study.batch_sample.support.pipeline.WriteBehindPipeline;
+import com.study.batch_sample.config.GlobalStepListenerConfigurer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
@@ -10,11 +15,10 @@ import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.batch.item.database.JdbcBatchItemWriter;
 import org.springframework.batch.item.database.builder.JdbcBatchItemWriterBuilder;
-import org.springframework.batch.item.file.FlatFileItemReader;
-import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.transaction.PlatformTransactionManager;
 
 import javax.sql.DataSource;
@@ -25,22 +29,26 @@ public class JdbcBatchItemConfig {
 
     public static final int CHUNK_SIZE = 100;
     public static final String ENCODING = "UTF-8";
+    public static final int WRITE_BEHIND_QUEUE_CAPACITY = 2;
     public static final String JDBC_BATCH_WRITER_CHUNK_JOB = "JDBC_BATCH_WRITER_CHUNK_JOB";
 
     @Autowired
     DataSource dataSource;
 
+    // item 단위 지표 / JFR listener 등록 (config.BatchMetricsConfig)
+    @Autowired
+    GlobalStepListenerConfigurer globalStepListenerConfigurer;
+
     @Bean
-    public FlatFileItemReader<Customer> flatFileItemReader() {
+    public MappedCsvItemReader<Customer> flatFileItemReader() {
 
-        return new FlatFileItemReaderBuilder<Customer>()
+        // 파일을 메모리 매핑해서 바이트 단위로 파싱한다 (UTF-8)
+        return new MappedCsvItemReaderBuilder<Customer>()
                 .name("FlatFileItemReader")
                 .resource(new ClassPathResource("./customers.csv"))
-                .encoding(ENCODING)
                 .linesToSkip(1)
-                .delimited().delimiter(",")
-                .names("name", "age", "gender")
-                .targetType(Customer.class)
+                .delimiter(',')
+                .recordMapper(new CustomerCsvRecordMapper())
                 .build();
     }
 
@@ -49,18 +57,30 @@ public class JdbcBatchItemConfig {
         return new JdbcBatchItemWriterBuilder<Customer>()
                 .dataSource(dataSource)
                 .sql("INSERT INTO customer2 (name, age, gender) VALUES (:name, :age, :gender)")
-                .itemSqlParameterSourceProvider(new CustomerItemSqlParameterSourceProvider())
+                .itemSqlParameterSourceProvider(new LambdaPropertySqlParameterSourceProvider<>(Customer.class))
                 .build();
     }
 
+    /**
+     * insert 는 전용 writer 스레드에서 chunk 마다 별도 트랜잭션으로 실행하고, 그 동안 다음 chunk 를 읽는다.
+     */
+    @Bean
+    public WriteBehindPipeline<Customer, Customer> customerWriteBehindPipeline() {
+        return new WriteBehindPipeline<>(
+                flatFileItemReader(),
+                flatFileItemWriter(),
+                new DataSourceTransactionManager(dataSource),
+                WRITE_BEHIND_QUEUE_CAPACITY);
+    }
+
     @Bean
     public Step flatFileStep(JobRepository jobRepository, PlatformTransactionManager transactionManager) {
         log.info("------------------ Init flatFileStep -----------------");
 
-        return new StepBuilder("flatFileStep", jobRepository)
-                .<Customer, Customer>chunk(CHUNK_SIZE, transactionManager)
-                .reader(flatFileItemReader())
-                .writer(flatFileItemWriter())
+        return globalStepListenerConfigurer.apply(new StepBuilder("flatFileStep", jobRepository)
+                .<Customer, Customer>chunk(CHUNK_SIZE, transactionManager))
+                .reader(customerWriteBehindPipeline().reader())
+                .writer(customerWriteBehindPipeline().writer())
                 .build();
     }
 
@@ -1,11 +1,16 @@
 package com.study.batch_sample.week5.config;
 
 import com.study.batch_sample.common.Customer;
+import com.study.batch_sample.support.watermark.IncrementalExtractListener;
+import com.study.batch_sample.support.watermark.WatermarkRunIdIncrementer;
+import com.study.batch_sample.support.watermark.WatermarkTracker;
+import com.study.batch_sample.config.GlobalStepListenerConfigurer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.JobBuilder;
-import org.springframework.batch.core.launch.support.RunIdIncrementer;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.batch.item.database.JdbcPagingItemReader;
@@ -16,6 +21,7 @@ import org.springframework.batch.item.database.support.SqlPagingQueryProviderFac
 import org.springframework.batch.item.file.FlatFileItemWriter;
 import org.springframework.batch.item.file.builder.FlatFileItemWriterBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.FileSystemResource;
@@ -26,6 +32,10 @@ import javax.sql.DataSource;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * 증분 export: 마지막 성공 실행의 watermark(최대 id) 이후 row 만 읽어 출력 파일 뒤에 붙인다.
+ * full=true 로 실행하면 전체를 다시 읽고 파일을 새로 만든다.
+ */
 @Slf4j
 //@Configuration
 public class JdbcPagingReaderJobConfig {
@@ -37,6 +47,12 @@ public class JdbcPagingReaderJobConfig {
     @Autowired
     DataSource dataSource;
 
+    @Autowired
+    IncrementalExtractListener incrementalExtractListener;
+
+    // item 단위 지표 / JFR listener 등록 (config.BatchMetricsConfig)
+    @Autowired
+    GlobalStepListenerConfigurer globalStepListenerConfigurer;
 
     @Bean
     public PagingQueryProvider queryProvider() throws Exception {
@@ -44,7 +60,7 @@ public class JdbcPagingReaderJobConfig {
         queryProvider.setDataSource(dataSource);
         queryProvider.setSelectClause("id ,name ,age ,gender");
         queryProvider.setFromClause("from customer");
-        queryProvider.setWhereClause("where age >= :age");
+        queryProvider.setWhereClause("where age >= :age and id > :watermarkFrom");
 
         Map<String, Order> sortKeys = new HashMap<>(1);
         sortKeys.put("id", Order.DESCENDING);
@@ -56,10 +72,13 @@ public class JdbcPagingReaderJobConfig {
     }
 
     @Bean
-    public JdbcPagingItemReader<Customer> jdbcPagingItemReader() throws Exception {
+    @StepScope
+    public JdbcPagingItemReader<Customer> jdbcPagingItemReader(
+            @Value("#{jobExecutionContext['watermark.from']}") Long watermarkFrom) throws Exception {
 
         Map<String, Object> parameterValue = new HashMap<>();
         parameterValue.put("age", 30);
+        parameterValue.put("watermarkFrom", watermarkFrom);
 
         return new JdbcPagingItemReaderBuilder<Customer>()
                 .name("jdbcPagingItemReader")
@@ -73,25 +92,35 @@ public class JdbcPagingReaderJobConfig {
     }
 
     @Bean
-    public FlatFileItemWriter<Customer> customerFlatFileItemWriter() {
+    @StepScope
+    public FlatFileItemWriter<Customer> customerFlatFileItemWriter(
+            @Value("#{jobExecutionContext['watermark.from']}") Long watermarkFrom) {
         return new FlatFileItemWriterBuilder<Customer>()
                 .name("customerFlatFileItemWriter")
                 .resource(new FileSystemResource("./output/customer_new_v1.csv"))
                 .encoding(ENCODING)
+                // 증분 실행이면 이어 쓰고, 전체 추출이면 새로 만든다
+                .append(watermarkFrom > IncrementalExtractListener.NO_WATERMARK)
                 .delimited().delimiter("\t")
                 .names("Name", "Age", "Gender")
                 .build();
     }
 
+    @Bean
+    public WatermarkTracker<Customer> jdbcExportWatermarkTracker() {
+        return new WatermarkTracker<>(Customer::getId);
+    }
 
     @Bean
     public Step customerJdbcPagingStep(JobRepository jobRepository, PlatformTransactionManager transactionManager) throws Exception {
         log.info("------------------ Init customerJdbcPagingStep -----------------");
 
-        return new StepBuilder("customerJdbcPagingStep", jobRepository)
-                .<Customer, Customer>chunk(CHUNK_SIZE, transactionManager)
-                .reader(jdbcPagingItemReader())
-                .writer(customerFlatFileItemWriter())
+        return globalStepListenerConfigurer.apply(new StepBuilder("customerJdbcPagingStep", jobRepository)
+                .<Customer, Customer>chunk(CHUNK_SIZE, transactionManager))
+                .reader(jdbcPagingItemReader(null))
+                .writer(customerFlatFileItemWriter(null))
+                .listener((StepExecutionListener) jdbcExportWatermarkTracker())
+                .stream(jdbcExportWatermarkTracker())
                 .build();
     }
 
@@ -99,7 +128,8 @@ public class JdbcPagingReaderJobConfig {
     public Job customerJdbcPagingJob(Step customerJdbcPagingStep, JobRepository jobRepository) {
         log.info("------------------ Init customerJdbcPagingJob -----------------");
         return new JobBuilder(JDBC_PAGING_CHUNK_JOB, jobRepository)
-                .incrementer(new RunIdIncrementer())
+                .incrementer(new WatermarkRunIdIncrementer())
+                .listener(incrementalExtractListener)
                 .start(customerJdbcPagingStep)
                 .build();
     }
@@ -0,0 +1,120 @@
+package com.study.batch_sample.week5.config;
+
+import org.springframework.batch.item.database.ItemSqlParameterSourceProvider;
+import org.springframework.beans.BeanUtils;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+import org.springframework.jdbc.core.namedparam.AbstractSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * BeanPropertySqlParameterSource 는 item 마다 BeanWrapper 를 만들고 getter 를 리플렉션으로 찾는다.
+ * 이 provider 는 타입별로 getter 를 LambdaMetafactory 로 한 번만 Function 으로 만들어 두고
+ * 모든 item / chunk 에서 재사용한다.
+ */
+public class LambdaPropertySqlParameterSourceProvider<T> implements ItemSqlParameterSourceProvider<T> {
+
+    private static final ClassValue<Map<String, Property>> PROPERTIES = new ClassValue<>() {
+        @Override
+        protected Map<String, Property> computeValue(Class<?> type) {
+            return createProperties(type);
+        }
+    };
+
+    private final Map<String, Property> properties;
+    private final String[] parameterNames;
+
+    public LambdaPropertySqlParameterSourceProvider(Class<T> type) {
+        this.properties = PROPERTIES.get(type);
+        this.parameterNames = properties.keySet().toArray(new String[0]);
+    }
+
+    @Override
+    public SqlParameterSource createSqlParameterSource(T item) {
+        return new PropertySqlParameterSource(item);
+    }
+
+    private class PropertySqlParameterSource extends AbstractSqlParameterSource {
+
+        private final T item;
+
+        PropertySqlParameterSource(T item) {
+            this.item = item;
+        }
+
+        @Override
+        public boolean hasValue(String paramName) {
+            return properties.containsKey(paramName);
+        }
+
+        @Override
+        public Object getValue(String paramName) throws IllegalArgumentException {
+            Property property = properties.get(paramName);
+            if (property == null) {
+                throw new IllegalArgumentException("No property '" + paramName + "' on " + item.getClass().getName());
+            }
+            return property.getter().apply(item);
+        }
+
+        @Override
+        public int getSqlType(String paramName) {
+            int sqlType = super.getSqlType(paramName);
+            if (sqlType != TYPE_UNKNOWN) {
+                return sqlType;
+            }
+            Property property = properties.get(paramName);
+            return property == null ? TYPE_UNKNOWN : property.sqlType();
+        }
+
+        @Override
+        public String[] getParameterNames() {
+            return parameterNames;
+        }
+    }
+
+    private record Property(Function<Object, Object> getter, int sqlType) {
+    }
+
+    private static Map<String, Property> createProperties(Class<?> type) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        Map<String, Property> properties = new LinkedHashMap<>();
+
+        for (PropertyDescriptor descriptor : BeanUtils.getPropertyDescriptors(type)) {
+            Method readMethod = descriptor.getReadMethod();
+            if (readMethod == null || readMethod.getDeclaringClass() == Object.class) {
+                continue;
+            }
+            int sqlType = StatementCreatorUtils.javaTypeToSqlParameterType(descriptor.getPropertyType());
+            properties.put(descriptor.getName(), new Property(getter(lookup, readMethod), sqlType));
+        }
+        return Collections.unmodifiableMap(properties);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> getter(MethodHandles.Lookup lookup, Method readMethod) {
+        try {
+            MethodHandle handle = lookup.unreflect(readMethod);
+            CallSite callSite = LambdaMetafactory.metafactory(
+                    lookup,
+                    "apply",
+                    MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class),
+                    handle,
+                    handle.type().wrap());
+            return (Function<Object, Object>) callSite.getTarget().invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Can not create getter for " + readMethod, e);
+        }
+    }
+}
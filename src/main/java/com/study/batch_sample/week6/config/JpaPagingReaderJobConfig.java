@@ -1,6 +1,7 @@
 package com.study.batch_sample.week6.config;
 
 import com.study.batch_sample.common.Customer;
+import com.study.batch_sample.config.GlobalStepListenerConfigurer;
 import jakarta.persistence.EntityManagerFactory;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.Job;
@@ -36,6 +37,10 @@ public class JpaPagingReaderJobConfig {
     @Autowired
     EntityManagerFactory entityManagerFactory;
 
+    // item 단위 지표 / JFR listener 등록 (config.BatchMetricsConfig)
+    @Autowired
+    GlobalStepListenerConfigurer globalStepListenerConfigurer;
+
 
 //    @Bean
 //    public JpaPagingItemReader<Customer> customerJpaPagingItemReader() {
@@ -79,8 +84,8 @@ public class JpaPagingReaderJobConfig {
     public Step customerJpaPagingStep(JobRepository jobRepository, PlatformTransactionManager transactionManager) throws Exception {
         log.info("------------------ Init customerJpaPagingStep -----------------");
 
-        return new StepBuilder("customerJpaPagingStep", jobRepository)
-                .<Customer, Customer>chunk(CHUNK_SIZE, transactionManager)
+        return globalStepListenerConfigurer.apply(new StepBuilder("customerJpaPagingStep", jobRepository)
+                .<Customer, Customer>chunk(CHUNK_SIZE, transactionManager))
                 .reader(customerJpaPagingItemReader())
                 .processor(item -> {
                     log.info("=========== processs =============");
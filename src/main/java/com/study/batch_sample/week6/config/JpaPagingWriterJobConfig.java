@@ -1,6 +1,8 @@
 package com.study.batch_sample.week6.config;
 
-import com.study.batch_sample.common.Customer;
+import com.study.batch_sample.entity.Customer;
+import com.study.batch_sample.support.jpa.StatelessSessionItemWriter;
+import com.study.batch_sample.config.GlobalStepListenerConfigurer;
 import jakarta.persistence.EntityManagerFactory;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.Job;
@@ -9,8 +11,6 @@ import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.launch.support.RunIdIncrementer;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
-import org.springframework.batch.item.database.JpaItemWriter;
-import org.springframework.batch.item.database.builder.JpaItemWriterBuilder;
 import org.springframework.batch.item.file.FlatFileItemReader;
 import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -35,6 +35,10 @@ public class JpaPagingWriterJobConfig {
     @Autowired
     EntityManagerFactory entityManagerFactory;
 
+    // item 단위 지표 / JFR listener 등록 (config.BatchMetricsConfig)
+    @Autowired
+    GlobalStepListenerConfigurer globalStepListenerConfigurer;
+
 
     @Bean
     public FlatFileItemReader<Customer> flatFileItemReader() {
@@ -49,12 +53,11 @@ public class JpaPagingWriterJobConfig {
                 .build();
     }
 
+    // persist 대신 StatelessSession insert: id 는 블록 단위로 예약하고, 영속성 컨텍스트에 엔티티가 쌓이지 않는다
+    // dataSource 는 @Primary(metaDBSource) 로 EntityManagerFactory / transactionManager 와 같은 DB 다
     @Bean
-    public JpaItemWriter<Customer> jpaItemWriter() {
-        return new JpaItemWriterBuilder<Customer>()
-                .entityManagerFactory(entityManagerFactory)
-                .usePersist(true)
-                .build();
+    public StatelessSessionItemWriter<Customer> jpaItemWriter() {
+        return new StatelessSessionItemWriter<>(entityManagerFactory, dataSource, CHUNK_SIZE);
     }
 
 
@@ -62,8 +65,8 @@ public class JpaPagingWriterJobConfig {
     public Step flatFileStep(JobRepository jobRepository, PlatformTransactionManager transactionManager) {
         log.info("------------------ Init flatFileStep -----------------");
 
-        return new StepBuilder("flatFileStep", jobRepository)
-                .<Customer, Customer>chunk(CHUNK_SIZE, transactionManager)
+        return globalStepListenerConfigurer.apply(new StepBuilder("flatFileStep", jobRepository)
+                .<Customer, Customer>chunk(CHUNK_SIZE, transactionManager))
                 .reader(flatFileItemReader())
                 .writer(jpaItemWriter())
                 .build();
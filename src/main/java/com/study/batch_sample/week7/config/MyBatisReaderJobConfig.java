@@ -1,26 +1,38 @@
 package com.study.batch_sample.week7.config;
 
 import com.study.batch_sample.model.Customer;
+import com.study.batch_sample.support.watermark.IncrementalExtractListener;
+import com.study.batch_sample.support.watermark.WatermarkRunIdIncrementer;
+import com.study.batch_sample.support.watermark.WatermarkTracker;
+import com.study.batch_sample.week7.job.CustomerMyBatisReaders;
+import com.study.batch_sample.week7.job.MyBatisReadMode;
+import com.study.batch_sample.config.GlobalStepListenerConfigurer;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.ibatis.session.SqlSessionFactory;
-import org.mybatis.spring.batch.MyBatisPagingItemReader;
-import org.mybatis.spring.batch.builder.MyBatisPagingItemReaderBuilder;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.JobBuilder;
-import org.springframework.batch.core.launch.support.RunIdIncrementer;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ItemStreamReader;
 import org.springframework.batch.item.file.FlatFileItemWriter;
 import org.springframework.batch.item.file.builder.FlatFileItemWriterBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.transaction.PlatformTransactionManager;
 
 import javax.sql.DataSource;
+import java.util.Map;
 
+/**
+ * 증분 export: 마지막 성공 실행의 watermark(최대 id) 이후 row 만 읽어 출력 파일 뒤에 붙인다.
+ * full=true 로 실행하면 전체를 다시 읽고 파일을 새로 만든다.
+ */
 @Slf4j
 //@Configuration
 public class MyBatisReaderJobConfig {
@@ -35,36 +47,53 @@ public class MyBatisReaderJobConfig {
     @Autowired
     SqlSessionFactory sqlSessionFactory;
 
+    @Value("${batch.mybatis.read-mode:PAGING}")
+    MyBatisReadMode readMode;
+
+    @Autowired
+    IncrementalExtractListener incrementalExtractListener;
+
+    // item 단위 지표 / JFR listener 등록 (config.BatchMetricsConfig)
+    @Autowired
+    GlobalStepListenerConfigurer globalStepListenerConfigurer;
 
     @Bean
-    public MyBatisPagingItemReader<Customer> myBatisItemReader() {
-        return new MyBatisPagingItemReaderBuilder<Customer>()
-                .sqlSessionFactory(sqlSessionFactory)
-                .pageSize(CHUNK_SIZE)
-                .queryId("com.study.batch_sample.mapper.CustomerMapper.selectCustomers")
-                .build();
+    @StepScope
+    public ItemStreamReader<Customer> myBatisItemReader(@Value("#{jobExecutionContext['watermark.from']}") Long watermarkFrom) {
+        return CustomerMyBatisReaders.reader(readMode, sqlSessionFactory, CHUNK_SIZE,
+                Map.of(CustomerMyBatisReaders.AFTER_ID, watermarkFrom));
     }
 
     @Bean
-    public FlatFileItemWriter<Customer> customerCursorFlatFileItemWriter() {
+    @StepScope
+    public FlatFileItemWriter<Customer> customerCursorFlatFileItemWriter(@Value("#{jobExecutionContext['watermark.from']}") Long watermarkFrom) {
         return new FlatFileItemWriterBuilder<Customer>()
                 .name("customerCursorFlatFileItemWriter")
                 .resource(new FileSystemResource("./output/customer_new_v4.csv"))
                 .encoding(ENCODING)
+                // 증분 실행이면 이어 쓰고, 전체 추출이면 새로 만든다
+                .append(watermarkFrom > IncrementalExtractListener.NO_WATERMARK)
                 .delimited().delimiter("\t")
                 .names("Name","Age","Gender")
                 .build();
     }
 
+    @Bean
+    public WatermarkTracker<Customer> myBatisExportWatermarkTracker() {
+        return new WatermarkTracker<>(Customer::getId);
+    }
+
     @Bean
     public Step customerJdbcCursorStep(JobRepository jobRepository , PlatformTransactionManager transactionManager) {
         log.info("------------------ Init customerJdbcCursorStep ----------------");
 
-        return new StepBuilder("customerJdbcCursorStep",jobRepository)
-                .<Customer , Customer>chunk(CHUNK_SIZE , transactionManager)
-                .reader(myBatisItemReader())
+        return globalStepListenerConfigurer.apply(new StepBuilder("customerJdbcCursorStep",jobRepository)
+                .<Customer , Customer>chunk(CHUNK_SIZE , transactionManager))
+                .reader(myBatisItemReader(null))
                 .processor(new CustomerItemProcessor())
-                .writer(customerCursorFlatFileItemWriter())
+                .writer(customerCursorFlatFileItemWriter(null))
+                .listener((StepExecutionListener) myBatisExportWatermarkTracker())
+                .stream(myBatisExportWatermarkTracker())
                 .build();
     }
 
@@ -72,7 +101,8 @@ public class MyBatisReaderJobConfig {
     public Job customerJdbcCursorPagingJob(Step customerJdbcCursorStep , JobRepository jobRepository) {
         log.info("------------------ Init customerJdbcCursorPagingJob ----------------");
         return new JobBuilder(MYBATIS_CHUNK_JOB , jobRepository)
-                .incrementer(new RunIdIncrementer())
+                .incrementer(new WatermarkRunIdIncrementer())
+                .listener(incrementalExtractListener)
                 .start(customerJdbcCursorStep)
                 .build();
     }
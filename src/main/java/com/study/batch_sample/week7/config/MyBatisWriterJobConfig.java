@@ -1,9 +1,12 @@
 package com.study.batch_sample.week7.config;
 
 import com.study.batch_sample.model.Customer;
+import com.study.batch_sample.support.chunk.AdaptiveChunkSizePolicy;
+import com.study.batch_sample.week7.job.MyBatisMultiRowInsertItemWriterBuilder;
+import com.study.batch_sample.week7.job.MyBatisWriteMode;
+import com.study.batch_sample.config.GlobalStepListenerConfigurer;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.ibatis.session.SqlSessionFactory;
-import org.mybatis.spring.batch.MyBatisBatchItemWriter;
 import org.mybatis.spring.batch.builder.MyBatisBatchItemWriterBuilder;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
@@ -11,15 +14,18 @@ import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.launch.support.RunIdIncrementer;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ItemWriter;
 import org.springframework.batch.item.file.FlatFileItemReader;
 import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.transaction.PlatformTransactionManager;
 
 import javax.sql.DataSource;
+import java.time.Duration;
 
 @Slf4j
 //@Configuration
@@ -28,6 +34,9 @@ public class MyBatisWriterJobConfig {
     public static final int CHUNK_SIZE = 2;
     public static final String ENCODING = "UTF-8";
     public static final String MYBATIS_CHUNK_JOB = "MYBATIS_CHUNK_JOB";
+    public static final int MULTI_ROW_MAX_ROWS = 1000;
+    public static final long MULTI_ROW_MAX_BYTES = 1024 * 1024;
+    public static final Duration TARGET_COMMIT_LATENCY = Duration.ofMillis(500);
 
     @Autowired
     DataSource dataSource;
@@ -35,15 +44,37 @@ public class MyBatisWriterJobConfig {
     @Autowired
     SqlSessionFactory sqlSessionFactory;
 
+    // item 단위 지표 / JFR listener 등록 (config.BatchMetricsConfig)
+    @Autowired
+    GlobalStepListenerConfigurer globalStepListenerConfigurer;
+
+    @Value("${batch.mybatis.write-mode:BATCH}")
+    MyBatisWriteMode writeMode;
+
 
     @Bean
-    public MyBatisBatchItemWriter<Customer> myBatisBatchItemWriter() {
+    public ItemWriter<Customer> myBatisBatchItemWriter() {
+        if (writeMode == MyBatisWriteMode.MULTI_ROW) {
+            return new MyBatisMultiRowInsertItemWriterBuilder<Customer>()
+                    .sqlSessionFactory(sqlSessionFactory)
+                    .statementId("com.study.batch_sample.mapper.CustomerMapper.insertCustomersMultiRow")
+                    .maxRows(MULTI_ROW_MAX_ROWS)
+                    .maxBytes(MULTI_ROW_MAX_BYTES)
+                    // utf8mb4 기준 문자당 최대 3byte(BMP) + 숫자/구분자 여유분
+                    .rowSizeEstimator(customer -> 3L * (length(customer.getName()) + length(customer.getGender())) + 32)
+                    .build();
+        }
+
         return new MyBatisBatchItemWriterBuilder<Customer>()
                 .sqlSessionFactory(sqlSessionFactory)
                 .statementId("com.study.batch_sample.mapper.CustomerMapper.insertCustomers")
                 .build();
     }
 
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
     @Bean
     public FlatFileItemReader<Customer> customerCursorFlatFileItemReader() {
         return new FlatFileItemReaderBuilder<Customer>()
@@ -57,15 +88,25 @@ public class MyBatisWriterJobConfig {
                 .build();
     }
 
+    /**
+     * CHUNK_SIZE 에서 시작해서 chunk 하나가 TARGET_COMMIT_LATENCY 안팎이 되도록 크기를 조절한다.
+     * multi-row insert 한 번에 들어갈 수 있는 MULTI_ROW_MAX_ROWS 를 넘지 않는다.
+     */
+    @Bean
+    public AdaptiveChunkSizePolicy customerChunkSizePolicy() {
+        return new AdaptiveChunkSizePolicy(CHUNK_SIZE, CHUNK_SIZE, MULTI_ROW_MAX_ROWS, TARGET_COMMIT_LATENCY);
+    }
+
     @Bean
     public Step customerJdbcCursorStep(JobRepository jobRepository, PlatformTransactionManager transactionManager) {
         log.info("------------------ Init customerJdbcCursorStep ----------------");
 
-        return new StepBuilder("customerJdbcCursorStep", jobRepository)
-                .<Customer, Customer>chunk(CHUNK_SIZE, transactionManager)
+        return globalStepListenerConfigurer.apply(new StepBuilder("customerJdbcCursorStep", jobRepository)
+                .<Customer, Customer>chunk(customerChunkSizePolicy(), transactionManager))
                 .reader(customerCursorFlatFileItemReader())
                 .processor(new CustomerItemProcessor())
                 .writer(myBatisBatchItemWriter())
+                .listener(customerChunkSizePolicy())
                 .build();
     }
 
@@ -0,0 +1,51 @@
+package com.study.batch_sample.week7.job;
+
+import com.study.batch_sample.model.Customer;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.batch.builder.MyBatisCursorItemReaderBuilder;
+import org.mybatis.spring.batch.builder.MyBatisPagingItemReaderBuilder;
+import org.springframework.batch.item.ItemStreamReader;
+
+import java.util.Map;
+
+public final class CustomerMyBatisReaders {
+
+    public static final String SELECT_CUSTOMERS = "com.study.batch_sample.mapper.CustomerMapper.selectCustomers";
+    public static final String SELECT_CUSTOMERS_AFTER = "com.study.batch_sample.mapper.CustomerMapper.selectCustomersAfter";
+    public static final String SELECT_CUSTOMERS_CURSOR = "com.study.batch_sample.mapper.CustomerMapper.selectCustomersCursor";
+
+    private CustomerMyBatisReaders() {
+    }
+
+    // 세 쿼리 모두 이 값보다 큰 id 만 읽는다 (null 이면 전체)
+    public static final String AFTER_ID = "afterId";
+
+    public static ItemStreamReader<Customer> reader(MyBatisReadMode mode, SqlSessionFactory sqlSessionFactory, int pageSize) {
+        return reader(mode, sqlSessionFactory, pageSize, null);
+    }
+
+    public static ItemStreamReader<Customer> reader(MyBatisReadMode mode, SqlSessionFactory sqlSessionFactory, int pageSize,
+                                                    Map<String, Object> parameterValues) {
+        return switch (mode) {
+            case PAGING -> new MyBatisPagingItemReaderBuilder<Customer>()
+                    .sqlSessionFactory(sqlSessionFactory)
+                    .pageSize(pageSize)
+                    .queryId(SELECT_CUSTOMERS)
+                    .parameterValues(parameterValues)
+                    .build();
+            case KEYSET -> new MyBatisKeysetItemReaderBuilder<Customer>()
+                    .name("customerMyBatisKeysetItemReader")
+                    .sqlSessionFactory(sqlSessionFactory)
+                    .pageSize(pageSize)
+                    .queryId(SELECT_CUSTOMERS_AFTER)
+                    .parameterValues(parameterValues)
+                    .keyExtractor(Customer::getId)
+                    .build();
+            case CURSOR -> new MyBatisCursorItemReaderBuilder<Customer>()
+                    .sqlSessionFactory(sqlSessionFactory)
+                    .queryId(SELECT_CUSTOMERS_CURSOR)
+                    .parameterValues(parameterValues)
+                    .build();
+        };
+    }
+}
@@ -0,0 +1,125 @@
+package com.study.batch_sample.week7.job;
+
+import com.study.batch_sample.support.jfr.BatchEvents;
+import com.study.batch_sample.support.jfr.PageFetchEvent;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.database.AbstractPagingItemReader;
+import org.springframework.util.ClassUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * LIMIT offset, size 대신 마지막으로 읽은 키 다음부터 읽는 MyBatis reader.
+ * queryId 의 쿼리는 #{lastId} (첫 페이지는 null) 와 #{_pagesize} 를 받아
+ * WHERE id > #{lastId} ORDER BY id LIMIT #{_pagesize} 형태로 작성한다.
+ */
+public class MyBatisKeysetItemReader<T> extends AbstractPagingItemReader<T> {
+
+    public static final String LAST_ID = "lastId";
+    public static final String PAGE_SIZE = "_pagesize";
+
+    private static final String START_AFTER_KEY = "start.after";
+
+    private final String name;
+    private final SqlSessionFactory sqlSessionFactory;
+    private final String queryId;
+    private final Map<String, Object> parameterValues;
+    private final Function<T, ? extends Number> keyExtractor;
+
+    private SqlSessionTemplate sqlSessionTemplate;
+
+    // 현재 페이지를 조회할 때 사용한 lastId
+    private Number pageStartAfter;
+    // 현재 페이지의 마지막 키
+    private Number pageLastKey;
+
+    public MyBatisKeysetItemReader(SqlSessionFactory sqlSessionFactory, String queryId, Function<T, ? extends Number> keyExtractor, int pageSize) {
+        this(ClassUtils.getShortName(MyBatisKeysetItemReader.class), sqlSessionFactory, queryId, null, keyExtractor, pageSize);
+    }
+
+    public MyBatisKeysetItemReader(String name, SqlSessionFactory sqlSessionFactory, String queryId, Map<String, Object> parameterValues,
+                                   Function<T, ? extends Number> keyExtractor, int pageSize) {
+        setName(name);
+        setPageSize(pageSize);
+        this.name = name;
+        this.sqlSessionFactory = sqlSessionFactory;
+        this.queryId = queryId;
+        this.parameterValues = parameterValues;
+        this.keyExtractor = keyExtractor;
+    }
+
+    @Override
+    protected void doOpen() throws Exception {
+        super.doOpen();
+        sqlSessionTemplate = new SqlSessionTemplate(sqlSessionFactory, ExecutorType.BATCH);
+        pageStartAfter = null;
+        pageLastKey = null;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        super.open(executionContext);
+
+        String key = getExecutionContextKey(START_AFTER_KEY);
+        if (isSaveState() && executionContext.containsKey(key)) {
+            pageLastKey = (Number) executionContext.get(key);
+        }
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        super.update(executionContext);
+
+        if (isSaveState()) {
+            // 재시작 시 read.count 로 페이지 안의 위치를 다시 건너뛰므로
+            // 페이지를 다 읽은 시점이면 마지막 키, 아니면 현재 페이지의 시작 키를 저장한다
+            Number restartKey = getCurrentItemCount() % getPageSize() == 0 ? pageLastKey : pageStartAfter;
+            if (restartKey != null) {
+                executionContext.put(getExecutionContextKey(START_AFTER_KEY), restartKey);
+            }
+        }
+    }
+
+    @Override
+    protected void doReadPage() {
+        Map<String, Object> parameters = new HashMap<>();
+        if (parameterValues != null) {
+            parameters.putAll(parameterValues);
+        }
+        pageStartAfter = pageLastKey;
+        parameters.put(LAST_ID, pageStartAfter);
+        parameters.put(PAGE_SIZE, getPageSize());
+
+        if (results == null) {
+            results = new CopyOnWriteArrayList<>();
+        } else {
+            results.clear();
+        }
+
+        PageFetchEvent event = new PageFetchEvent();
+        event.begin();
+        List<T> page = sqlSessionTemplate.selectList(queryId, parameters);
+        event.end();
+        if (event.shouldCommit()) {
+            event.reader = name;
+            event.step = BatchEvents.currentStepName();
+            event.offset = -1;
+            event.startAfter = String.valueOf(pageStartAfter);
+            event.rowCount = page.size();
+            event.commit();
+        }
+        results.addAll(page);
+
+        if (!page.isEmpty()) {
+            pageLastKey = keyExtractor.apply(page.get(page.size() - 1));
+        }
+    }
+}
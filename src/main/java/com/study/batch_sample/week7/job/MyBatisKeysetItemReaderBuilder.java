@@ -0,0 +1,65 @@
+package com.study.batch_sample.week7.job;
+
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.util.ClassUtils;
+
+import java.util.Map;
+import java.util.function.Function;
+
+public class MyBatisKeysetItemReaderBuilder<T> {
+
+    private SqlSessionFactory sqlSessionFactory;
+    private String queryId;
+    private Map<String, Object> parameterValues;
+    private Function<T, ? extends Number> keyExtractor;
+
+    private int pageSize = 10;
+    private String name;
+
+    public MyBatisKeysetItemReaderBuilder<T> sqlSessionFactory(SqlSessionFactory sqlSessionFactory) {
+        this.sqlSessionFactory = sqlSessionFactory;
+        return this;
+    }
+
+    public MyBatisKeysetItemReaderBuilder<T> queryId(String queryId) {
+        this.queryId = queryId;
+        return this;
+    }
+
+    public MyBatisKeysetItemReaderBuilder<T> parameterValues(Map<String, Object> parameterValues) {
+        this.parameterValues = parameterValues;
+        return this;
+    }
+
+    public MyBatisKeysetItemReaderBuilder<T> keyExtractor(Function<T, ? extends Number> keyExtractor) {
+        this.keyExtractor = keyExtractor;
+        return this;
+    }
+
+    public MyBatisKeysetItemReaderBuilder<T> pageSize(int pageSize) {
+        this.pageSize = pageSize;
+        return this;
+    }
+
+    public MyBatisKeysetItemReaderBuilder<T> name(String name) {
+        this.name = name;
+        return this;
+    }
+
+    public MyBatisKeysetItemReader<T> build() {
+        if (name == null) {
+            this.name = ClassUtils.getShortName(MyBatisKeysetItemReader.class);
+        }
+        if (this.sqlSessionFactory == null) {
+            throw new IllegalArgumentException("SqlSessionFactory can not be null.!");
+        }
+        if (this.queryId == null) {
+            throw new IllegalArgumentException("queryId can not be null.!");
+        }
+        if (this.keyExtractor == null) {
+            throw new IllegalArgumentException("keyExtractor can not be null.!");
+        }
+
+        return new MyBatisKeysetItemReader<>(name, sqlSessionFactory, queryId, parameterValues, keyExtractor, pageSize);
+    }
+}
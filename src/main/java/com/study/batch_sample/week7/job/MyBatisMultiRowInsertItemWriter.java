@@ -0,0 +1,76 @@
+package com.study.batch_sample.week7.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.jdbc.IncorrectUpdateSemanticsDataAccessException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * chunk 를 INSERT ... VALUES (...), (...), ... 한 문장으로 보내는 writer.
+ * 한 문장이 max_allowed_packet 을 넘지 않도록 maxRows / maxBytes 기준으로 나누어 보내고,
+ * 영향받은 row 수가 보낸 row 수와 다르면 예외를 던진다.
+ * statementId 의 쿼리는 #{list} 를 foreach 로 펼쳐 작성한다.
+ */
+@Slf4j
+public class MyBatisMultiRowInsertItemWriter<T> implements ItemWriter<T> {
+
+    public static final String LIST = "list";
+
+    private final SqlSessionTemplate sqlSessionTemplate;
+    private final String statementId;
+    private final int maxRows;
+    private final long maxBytes;
+    private final ToLongFunction<? super T> rowSizeEstimator;
+
+    public MyBatisMultiRowInsertItemWriter(SqlSessionFactory sqlSessionFactory, String statementId, int maxRows, long maxBytes,
+                                           ToLongFunction<? super T> rowSizeEstimator) {
+        this.sqlSessionTemplate = new SqlSessionTemplate(sqlSessionFactory, ExecutorType.SIMPLE);
+        this.statementId = statementId;
+        this.maxRows = maxRows;
+        this.maxBytes = maxBytes;
+        this.rowSizeEstimator = rowSizeEstimator;
+    }
+
+    @Override
+    public void write(Chunk<? extends T> chunk) throws Exception {
+        List<T> rows = new ArrayList<>();
+        long bytes = 0;
+        long inserted = 0;
+        int statements = 0;
+
+        for (T item : chunk) {
+            long rowSize = rowSizeEstimator.applyAsLong(item);
+            if (!rows.isEmpty() && (rows.size() >= maxRows || bytes + rowSize > maxBytes)) {
+                inserted += insert(rows);
+                statements++;
+                rows = new ArrayList<>();
+                bytes = 0;
+            }
+            rows.add(item);
+            bytes += rowSize;
+        }
+        if (!rows.isEmpty()) {
+            inserted += insert(rows);
+            statements++;
+        }
+
+        log.debug("{} : {} rows inserted by {} statements", statementId, inserted, statements);
+    }
+
+    private int insert(List<T> rows) {
+        int updated = sqlSessionTemplate.insert(statementId, Map.of(LIST, rows));
+        if (updated != rows.size()) {
+            throw new IncorrectUpdateSemanticsDataAccessException(
+                    statementId + " : expected " + rows.size() + " rows to be inserted but was " + updated);
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,68 @@
+package com.study.batch_sample.week7.job;
+
+import org.apache.ibatis.session.SqlSessionFactory;
+
+import java.util.function.ToLongFunction;
+
+public class MyBatisMultiRowInsertItemWriterBuilder<T> {
+
+    private SqlSessionFactory sqlSessionFactory;
+    private String statementId;
+
+    private int maxRows = 1000;
+    // 지정하지 않으면 maxRows 로만 나눈다
+    private long maxBytes = Long.MAX_VALUE;
+    private ToLongFunction<? super T> rowSizeEstimator;
+
+    public MyBatisMultiRowInsertItemWriterBuilder<T> sqlSessionFactory(SqlSessionFactory sqlSessionFactory) {
+        this.sqlSessionFactory = sqlSessionFactory;
+        return this;
+    }
+
+    public MyBatisMultiRowInsertItemWriterBuilder<T> statementId(String statementId) {
+        this.statementId = statementId;
+        return this;
+    }
+
+    public MyBatisMultiRowInsertItemWriterBuilder<T> maxRows(int maxRows) {
+        this.maxRows = maxRows;
+        return this;
+    }
+
+    /**
+     * 한 문장의 추정 크기 상한. MySQL max_allowed_packet 보다 충분히 작게 잡는다.
+     * row 크기는 item 마다 달라서 일정한 값으로는 상한이 의미가 없으므로 rowSizeEstimator 를 함께 지정해야 한다.
+     */
+    public MyBatisMultiRowInsertItemWriterBuilder<T> maxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+        return this;
+    }
+
+    /**
+     * item 하나가 VALUES (...) 에서 차지하는 byte 수 추정치. 실제보다 작으면 문장이 maxBytes 를 넘을 수 있으니 넉넉하게 잡는다.
+     */
+    public MyBatisMultiRowInsertItemWriterBuilder<T> rowSizeEstimator(ToLongFunction<? super T> rowSizeEstimator) {
+        this.rowSizeEstimator = rowSizeEstimator;
+        return this;
+    }
+
+    public MyBatisMultiRowInsertItemWriter<T> build() {
+        if (this.sqlSessionFactory == null) {
+            throw new IllegalArgumentException("SqlSessionFactory can not be null.!");
+        }
+        if (this.statementId == null) {
+            throw new IllegalArgumentException("statementId can not be null.!");
+        }
+        if (this.maxRows < 1 || this.maxBytes < 1) {
+            throw new IllegalArgumentException("maxRows and maxBytes must be positive.!");
+        }
+        if (this.maxBytes != Long.MAX_VALUE && this.rowSizeEstimator == null) {
+            throw new IllegalArgumentException("rowSizeEstimator can not be null when maxBytes is set.!");
+        }
+        if (this.rowSizeEstimator == null) {
+            rowSizeEstimator = item -> 0;
+        }
+
+        return new MyBatisMultiRowInsertItemWriter<>(sqlSessionFactory, statementId, maxRows, maxBytes, rowSizeEstimator);
+    }
+}
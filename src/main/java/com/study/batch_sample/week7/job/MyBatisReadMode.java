@@ -0,0 +1,13 @@
+package com.study.batch_sample.week7.job;
+
+/**
+ * customer 조회 방식
+ * PAGING : LIMIT #{_skiprows}, #{_pagesize} (MyBatisPagingItemReader)
+ * KEYSET : WHERE id > #{lastId} ORDER BY id LIMIT #{_pagesize} (MyBatisKeysetItemReader)
+ * CURSOR : 쿼리 한 번 + fetchSize 스트리밍 (MyBatisCursorItemReader)
+ */
+public enum MyBatisReadMode {
+    PAGING,
+    KEYSET,
+    CURSOR
+}
@@ -0,0 +1,11 @@
+package com.study.batch_sample.week7.job;
+
+/**
+ * customer2 적재 방식
+ * BATCH     : item 마다 INSERT 한 문장씩 JDBC batch 로 전송 (MyBatisBatchItemWriter)
+ * MULTI_ROW : chunk 를 INSERT ... VALUES (...), (...) 로 묶어서 전송 (MyBatisMultiRowInsertItemWriter)
+ */
+public enum MyBatisWriteMode {
+    BATCH,
+    MULTI_ROW
+}
@@ -1,23 +1,28 @@
 package com.study.batch_sample.week8.config;
 
+import com.study.batch_sample.config.ConcurrentStepConfigurer;
 import com.study.batch_sample.model.Customer;
+import com.study.batch_sample.support.async.AsyncProcessingStage;
+import com.study.batch_sample.week7.job.CustomerMyBatisReaders;
+import com.study.batch_sample.week7.job.MyBatisReadMode;
 import com.study.batch_sample.week8.job.After20YearsItemProcessor;
 import com.study.batch_sample.week8.job.LowerCaseItemProcessor;
+import com.study.batch_sample.config.GlobalStepListenerConfigurer;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.ibatis.session.SqlSessionFactory;
-import org.mybatis.spring.batch.MyBatisPagingItemReader;
-import org.mybatis.spring.batch.builder.MyBatisPagingItemReaderBuilder;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.launch.support.RunIdIncrementer;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ItemStreamReader;
 import org.springframework.batch.item.file.FlatFileItemWriter;
 import org.springframework.batch.item.file.builder.FlatFileItemWriterBuilder;
 import org.springframework.batch.item.support.CompositeItemProcessor;
 import org.springframework.batch.item.support.builder.CompositeItemProcessorBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.FileSystemResource;
@@ -25,6 +30,7 @@ import org.springframework.transaction.PlatformTransactionManager;
 
 import javax.sql.DataSource;
 import java.util.List;
+import java.util.concurrent.Future;
 
 @Slf4j
 //@Configuration
@@ -39,14 +45,20 @@ public class MyBatisReaderConfig {
     @Autowired
     SqlSessionFactory sqlSessionFactory;
 
+    @Value("${batch.mybatis.read-mode:PAGING}")
+    MyBatisReadMode readMode;
+
+    @Autowired
+    ConcurrentStepConfigurer concurrentStepConfigurer;
+
+    // item 단위 지표 / JFR listener 등록 (config.BatchMetricsConfig)
+    @Autowired
+    GlobalStepListenerConfigurer globalStepListenerConfigurer;
+
 
     @Bean
-    public MyBatisPagingItemReader<Customer> myBatisItemReader() {
-        return new MyBatisPagingItemReaderBuilder<Customer>()
-                .sqlSessionFactory(sqlSessionFactory)
-                .pageSize(CHUNK_SIZE)
-                .queryId("com.study.batch_sample.mapper.CustomerMapper.selectCustomers")
-                .build();
+    public ItemStreamReader<Customer> myBatisItemReader() {
+        return CustomerMyBatisReaders.reader(readMode, sqlSessionFactory, CHUNK_SIZE);
     }
 
     @Bean
@@ -70,15 +82,28 @@ public class MyBatisReaderConfig {
                 .build();
     }
 
+    /**
+     * processor 를 batchTaskExecutor 에서 item 단위로 병렬 실행하고, writer 에서 chunk 순서대로 결과를 모은다.
+     * (조회 / 외부 호출이 들어가는 I/O 성 processor 용)
+     */
+    @Bean
+    public AsyncProcessingStage<Customer, Customer> asyncCustomerProcessingStage() {
+        return new AsyncProcessingStage<>(
+                compositeItemProcessor(),
+                customerCursorFlatFileItemWriter(),
+                concurrentStepConfigurer.getTaskExecutor(),
+                concurrentStepConfigurer.getConcurrency());
+    }
+
     @Bean
     public Step customerJdbcCursorStep(JobRepository jobRepository, PlatformTransactionManager transactionManager) throws Exception {
         log.info("------------------ Init customerJdbcCursorStep -----------------");
 
-        return new StepBuilder("customerJdbcCursorStep", jobRepository)
-                .<Customer, Customer>chunk(CHUNK_SIZE, transactionManager)
+        return globalStepListenerConfigurer.apply(new StepBuilder("customerJdbcCursorStep", jobRepository)
+                .<Customer, Future<Customer>>chunk(CHUNK_SIZE, transactionManager))
                 .reader(myBatisItemReader())
-                .processor(compositeItemProcessor())
-                .writer(customerCursorFlatFileItemWriter())
+                .processor(asyncCustomerProcessingStage().processor())
+                .writer(asyncCustomerProcessingStage().writer())
                 .build();
     }
 
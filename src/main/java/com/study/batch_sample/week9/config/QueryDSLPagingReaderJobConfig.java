@@ -2,19 +2,29 @@ package com.study.batch_sample.week9.config;
 
 import com.study.batch_sample.entity.Customer;
 import com.study.batch_sample.entity.QCustomer;
+import com.study.batch_sample.support.watermark.IncrementalExtractListener;
+import com.study.batch_sample.support.watermark.WatermarkRunIdIncrementer;
+import com.study.batch_sample.support.watermark.WatermarkTracker;
+import com.study.batch_sample.week9.job.QuerydslCursorItemReader;
+import com.study.batch_sample.week9.job.QuerydslCursorItemReaderBuilder;
 import com.study.batch_sample.week9.job.QuerydslPagingItemReader;
 import com.study.batch_sample.week9.job.QuerydslPagingItemReaderBuilder;
+import com.study.batch_sample.week9.job.QuerydslReadMode;
+import com.study.batch_sample.config.GlobalStepListenerConfigurer;
 import jakarta.persistence.EntityManagerFactory;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.JobBuilder;
-import org.springframework.batch.core.launch.support.RunIdIncrementer;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ItemStreamReader;
 import org.springframework.batch.item.file.FlatFileItemWriter;
 import org.springframework.batch.item.file.builder.FlatFileItemWriterBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.FileSystemResource;
@@ -22,11 +32,17 @@ import org.springframework.transaction.PlatformTransactionManager;
 
 import javax.sql.DataSource;
 
+/**
+ * 증분 export: 마지막 성공 실행의 watermark(최대 id) 이후 row 만 읽어 출력 파일 뒤에 붙인다.
+ * full=true 로 실행하면 전체를 다시 읽고 파일을 새로 만든다.
+ */
 @Slf4j
 @Configuration
 public class QueryDSLPagingReaderJobConfig {
 
     public static final int CHUNK_SIZE = 2;
+    public static final int FETCH_SIZE = 1000;
+    public static final int PREFETCH_PAGES = 2;
     public static final String ENCODING = "UTF-8";
     public static final String QUERYDSL_PAGING_CHUNK_JOB = "QUERYDSL_PAGING_CHUNK_JOB";
 
@@ -36,37 +52,77 @@ public class QueryDSLPagingReaderJobConfig {
     @Autowired
     EntityManagerFactory entityManagerFactory;
 
+    @Autowired
+    IncrementalExtractListener incrementalExtractListener;
+
+    // item 단위 지표 / JFR listener 등록 (config.BatchMetricsConfig)
+    @Autowired
+    GlobalStepListenerConfigurer globalStepListenerConfigurer;
+
+    @Value("${batch.querydsl.read-mode:KEYSET}")
+    QuerydslReadMode readMode;
+
     @Bean
-    public QuerydslPagingItemReader<Customer> customerQuerydslPagingItemReader() {
+    @StepScope
+    public QuerydslPagingItemReader<Customer> customerQuerydslPagingItemReader(@Value("#{jobExecutionContext['watermark.from']}") Long watermarkFrom) {
         return new QuerydslPagingItemReaderBuilder<Customer>()
                 .name("customerQuerydslPagingItemReader")
                 .entityManagerFactory(entityManagerFactory)
-                .chunkSize(2)
+                .chunkSize(CHUNK_SIZE)
                 .querySupplier(jpaQueryFactory -> jpaQueryFactory.select(QCustomer.customer).from(QCustomer.customer).where(QCustomer.customer.age.gt(20)))
+                .where(QCustomer.customer.id.gt(watermarkFrom.intValue()))
+                .keyset(QCustomer.customer.id, Customer::getId)
+                .prefetchPages(PREFETCH_PAGES)
                 .build();
 
     }
 
     @Bean
-    public FlatFileItemWriter<Customer> customerQuerydslFlatFileItemWriter() {
+    @StepScope
+    public QuerydslCursorItemReader<Customer> customerQuerydslCursorItemReader(@Value("#{jobExecutionContext['watermark.from']}") Long watermarkFrom) {
+        return new QuerydslCursorItemReaderBuilder<Customer>()
+                .name("customerQuerydslCursorItemReader")
+                .entityManagerFactory(entityManagerFactory)
+                .fetchSize(FETCH_SIZE)
+                .querySupplier(jpaQueryFactory -> jpaQueryFactory.select(QCustomer.customer).from(QCustomer.customer).where(QCustomer.customer.age.gt(20), QCustomer.customer.id.gt(watermarkFrom.intValue())).orderBy(QCustomer.customer.id.asc()))
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public FlatFileItemWriter<Customer> customerQuerydslFlatFileItemWriter(@Value("#{jobExecutionContext['watermark.from']}") Long watermarkFrom) {
         return new FlatFileItemWriterBuilder<Customer>()
                 .name("customerQuerydslFlatFileItemWriter")
                 .resource(new FileSystemResource("./output/customer_new_v6.csv"))
                 .encoding(ENCODING)
+                // 증분 실행이면 이어 쓰고, 전체 추출이면 새로 만든다
+                .append(watermarkFrom > IncrementalExtractListener.NO_WATERMARK)
                 .delimited().delimiter("\t")
                 .names("Name" , "Age" , "Gender")
                 .build();
     }
 
+    @Bean
+    public WatermarkTracker<Customer> querydslExportWatermarkTracker() {
+        return new WatermarkTracker<>(Customer::getId);
+    }
+
     @Bean
     public Step customerQuerydslPagingStep(JobRepository jobRepository , PlatformTransactionManager transactionManager) {
         log.info("-------------- Init customerQuerydslPagingStep --------------");
 
-        return new StepBuilder("customerJpaPagingStep", jobRepository)
-                .<Customer,Customer>chunk(CHUNK_SIZE , transactionManager)
-                .reader(customerQuerydslPagingItemReader())
+        // KEYSET : page 단위 keyset 조회 + 다음 page prefetch, CURSOR : 한 번의 쿼리로 스트리밍 (batch.querydsl.read-mode)
+        ItemStreamReader<Customer> reader = readMode == QuerydslReadMode.CURSOR
+                ? customerQuerydslCursorItemReader(null)
+                : customerQuerydslPagingItemReader(null);
+
+        return globalStepListenerConfigurer.apply(new StepBuilder("customerJpaPagingStep", jobRepository)
+                .<Customer,Customer>chunk(CHUNK_SIZE , transactionManager))
+                .reader(reader)
                 .processor(new CustomerItemProcessor())
-                .writer(customerQuerydslFlatFileItemWriter())
+                .writer(customerQuerydslFlatFileItemWriter(null))
+                .listener((StepExecutionListener) querydslExportWatermarkTracker())
+                .stream(querydslExportWatermarkTracker())
                 .build();
     }
 
@@ -74,7 +130,8 @@ public class QueryDSLPagingReaderJobConfig {
     public Job customerJpaPagingJob(Step customerJdbcPagingStep, JobRepository jobRepository) {
         log.info("------------------ Init customerJpaPagingJob -----------------");
         return new JobBuilder(QUERYDSL_PAGING_CHUNK_JOB, jobRepository)
-                .incrementer(new RunIdIncrementer())
+                .incrementer(new WatermarkRunIdIncrementer())
+                .listener(incrementalExtractListener)
                 .start(customerJdbcPagingStep)
                 .build();
     }
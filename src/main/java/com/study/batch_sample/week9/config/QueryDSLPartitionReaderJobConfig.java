@@ -0,0 +1,114 @@
+package com.study.batch_sample.week9.config;
+
+import com.study.batch_sample.config.ConcurrentStepConfigurer;
+import com.study.batch_sample.entity.Customer;
+import com.study.batch_sample.entity.QCustomer;
+import com.study.batch_sample.support.partition.ColumnRangePartitioner;
+import com.study.batch_sample.support.partition.PartitionSizing;
+import com.study.batch_sample.week9.job.QuerydslPagingItemReader;
+import com.study.batch_sample.week9.job.QuerydslPagingItemReaderBuilder;
+import com.study.batch_sample.config.GlobalStepListenerConfigurer;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.support.RunIdIncrementer;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.file.FlatFileItemWriter;
+import org.springframework.batch.item.file.builder.FlatFileItemWriterBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+@Slf4j
+//@Configuration
+public class QueryDSLPartitionReaderJobConfig {
+
+    public static final int CHUNK_SIZE = 100;
+    public static final String ENCODING = "UTF-8";
+    public static final String QUERYDSL_PARTITION_CHUNK_JOB = "QUERYDSL_PARTITION_CHUNK_JOB";
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    // config.BatchTaskExecutorConfig 의 공용 executor (커넥션 풀 크기로 제한됨)
+    @Autowired
+    ConcurrentStepConfigurer concurrentStepConfigurer;
+
+    // item 단위 지표 / JFR listener 등록 (config.BatchMetricsConfig)
+    @Autowired
+    GlobalStepListenerConfigurer globalStepListenerConfigurer;
+
+    @Bean
+    public ColumnRangePartitioner customerIdRangePartitioner() {
+        return new ColumnRangePartitioner(dataSource, "customer", "id");
+    }
+
+    @Bean
+    @StepScope
+    public QuerydslPagingItemReader<Customer> customerPartitionItemReader(
+            @Value("#{stepExecutionContext['minId']}") Long minId,
+            @Value("#{stepExecutionContext['maxId']}") Long maxId) {
+        return new QuerydslPagingItemReaderBuilder<Customer>()
+                .name("customerPartitionItemReader")
+                .entityManagerFactory(entityManagerFactory)
+                .chunkSize(CHUNK_SIZE)
+                .querySupplier(jpaQueryFactory -> jpaQueryFactory.select(QCustomer.customer).from(QCustomer.customer).where(QCustomer.customer.age.gt(20)))
+                .where(QCustomer.customer.id.between(minId.intValue(), maxId.intValue()))
+                .keyset(QCustomer.customer.id, Customer::getId)
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public FlatFileItemWriter<Customer> customerPartitionFlatFileItemWriter(
+            @Value("#{stepExecutionContext['minId']}") Long minId) {
+        return new FlatFileItemWriterBuilder<Customer>()
+                .name("customerPartitionFlatFileItemWriter")
+                .resource(new FileSystemResource("./output/customer_new_v6_" + minId + ".csv"))
+                .encoding(ENCODING)
+                .delimited().delimiter("\t")
+                .names("Name", "Age", "Gender")
+                .build();
+    }
+
+    @Bean
+    public Step customerPartitionWorkerStep(JobRepository jobRepository, PlatformTransactionManager transactionManager) {
+        return globalStepListenerConfigurer.apply(new StepBuilder("customerPartitionWorkerStep", jobRepository)
+                .<Customer, Customer>chunk(CHUNK_SIZE, transactionManager))
+                .reader(customerPartitionItemReader(null, null))
+                .writer(customerPartitionFlatFileItemWriter(null))
+                .build();
+    }
+
+    @Bean
+    public Step customerPartitionManagerStep(JobRepository jobRepository, Step customerPartitionWorkerStep) {
+        log.info("-------------- Init customerPartitionManagerStep --------------");
+
+        return new StepBuilder("customerPartitionManagerStep", jobRepository)
+                .partitioner("customerPartitionWorkerStep", customerIdRangePartitioner())
+                .step(customerPartitionWorkerStep)
+                .gridSize(PartitionSizing.gridSize(dataSource))
+                .taskExecutor(concurrentStepConfigurer.getTaskExecutor())
+                .build();
+    }
+
+    @Bean
+    public Job customerPartitionJob(Step customerPartitionManagerStep, JobRepository jobRepository) {
+        log.info("------------------ Init customerPartitionJob -----------------");
+        return new JobBuilder(QUERYDSL_PARTITION_CHUNK_JOB, jobRepository)
+                .incrementer(new RunIdIncrementer())
+                .start(customerPartitionManagerStep)
+                .build();
+    }
+}
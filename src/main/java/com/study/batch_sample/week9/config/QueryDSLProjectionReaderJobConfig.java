@@ -0,0 +1,86 @@
+package com.study.batch_sample.week9.config;
+
+import com.querydsl.core.types.Projections;
+import com.study.batch_sample.entity.QCustomer;
+import com.study.batch_sample.model.Customer;
+import com.study.batch_sample.week9.job.QuerydslPagingItemReader;
+import com.study.batch_sample.week9.job.QuerydslPagingItemReaderBuilder;
+import com.study.batch_sample.config.GlobalStepListenerConfigurer;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.support.RunIdIncrementer;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.file.FlatFileItemWriter;
+import org.springframework.batch.item.file.builder.FlatFileItemWriterBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Slf4j
+//@Configuration
+public class QueryDSLProjectionReaderJobConfig {
+
+    public static final int CHUNK_SIZE = 100;
+    public static final String ENCODING = "UTF-8";
+    public static final String QUERYDSL_PROJECTION_CHUNK_JOB = "QUERYDSL_PROJECTION_CHUNK_JOB";
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    // item 단위 지표 / JFR listener 등록 (config.BatchMetricsConfig)
+    @Autowired
+    GlobalStepListenerConfigurer globalStepListenerConfigurer;
+
+    @Bean
+    public QuerydslPagingItemReader<Customer> customerQuerydslProjectionItemReader() {
+        QCustomer customer = QCustomer.customer;
+
+        // writer 가 쓰는 name / age / gender 만 DTO 로 바로 조회한다
+        return new QuerydslPagingItemReaderBuilder<Customer>()
+                .name("customerQuerydslProjectionItemReader")
+                .entityManagerFactory(entityManagerFactory)
+                .chunkSize(CHUNK_SIZE)
+                .projectionSupplier(jpaQueryFactory -> jpaQueryFactory
+                        .select(Projections.fields(Customer.class, customer.name, customer.age, customer.gender))
+                        .from(customer)
+                        .where(customer.age.gt(20))
+                        .orderBy(customer.id.asc()))
+                .build();
+    }
+
+    @Bean
+    public FlatFileItemWriter<Customer> customerQuerydslProjectionFlatFileItemWriter() {
+        return new FlatFileItemWriterBuilder<Customer>()
+                .name("customerQuerydslProjectionFlatFileItemWriter")
+                .resource(new FileSystemResource("./output/customer_new_v7.csv"))
+                .encoding(ENCODING)
+                .delimited().delimiter("\t")
+                .names("Name", "Age", "Gender")
+                .build();
+    }
+
+    @Bean
+    public Step customerQuerydslProjectionStep(JobRepository jobRepository, PlatformTransactionManager transactionManager) {
+        log.info("-------------- Init customerQuerydslProjectionStep --------------");
+
+        return globalStepListenerConfigurer.apply(new StepBuilder("customerQuerydslProjectionStep", jobRepository)
+                .<Customer, Customer>chunk(CHUNK_SIZE, transactionManager))
+                .reader(customerQuerydslProjectionItemReader())
+                .writer(customerQuerydslProjectionFlatFileItemWriter())
+                .build();
+    }
+
+    @Bean
+    public Job customerQuerydslProjectionJob(Step customerQuerydslProjectionStep, JobRepository jobRepository) {
+        log.info("------------------ Init customerQuerydslProjectionJob -----------------");
+        return new JobBuilder(QUERYDSL_PROJECTION_CHUNK_JOB, jobRepository)
+                .incrementer(new RunIdIncrementer())
+                .start(customerQuerydslProjectionStep)
+                .build();
+    }
+}
@@ -0,0 +1,113 @@
+package com.study.batch_sample.week9.job;
+
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.QueryModifiers;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.jpa.HQLTemplates;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.jpa.impl.JPAUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.Query;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import org.springframework.util.ClassUtils;
+
+import java.util.function.Function;
+
+/**
+ * Querydsl 로 만든 쿼리를 Hibernate StatelessSession 에서 한 번만 실행하고 forward-only 커서로 읽는 ItemReader.
+ * 영속성 컨텍스트를 거치지 않으므로 엔티티 스냅샷/detach 비용 없이 전체 테이블을 일정한 메모리로 읽을 수 있다.
+ * (MySQL 에서 fetchSize 를 양수로 주려면 jdbc-url 에 useCursorFetch=true 가 필요하다)
+ */
+public class QuerydslCursorItemReader<T> extends AbstractItemCountingItemStreamItemReader<T> {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final Function<JPAQueryFactory, JPAQuery<T>> querySupplier;
+    private final int fetchSize;
+
+    private StatelessSession session;
+    private ScrollableResults<?> cursor;
+    private FactoryExpression<T> factoryExpression;
+
+    public QuerydslCursorItemReader(EntityManagerFactory entityManagerFactory, Function<JPAQueryFactory, JPAQuery<T>> querySupplier, int fetchSize) {
+        this(ClassUtils.getShortName(QuerydslCursorItemReader.class), entityManagerFactory, querySupplier, fetchSize);
+    }
+
+    public QuerydslCursorItemReader(String name, EntityManagerFactory entityManagerFactory, Function<JPAQueryFactory, JPAQuery<T>> querySupplier, int fetchSize) {
+        setName(name);
+        this.entityManagerFactory = entityManagerFactory;
+        this.querySupplier = querySupplier;
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void doOpen() throws Exception {
+        // 쿼리 조립에만 EntityManager 를 쓰고, 실행은 StatelessSession 에서 한다
+        QueryMetadata metadata;
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            metadata = querySupplier.apply(new JPAQueryFactory(HQLTemplates.DEFAULT, em)).getMetadata();
+        } finally {
+            em.close();
+        }
+
+        JPQLSerializer serializer = new JPQLSerializer(HQLTemplates.DEFAULT);
+        serializer.serialize(metadata, false, null);
+
+        Expression<?> projection = metadata.getProjection();
+        if (projection instanceof FactoryExpression) {
+            factoryExpression = (FactoryExpression<T>) projection;
+        }
+
+        session = entityManagerFactory.unwrap(SessionFactory.class).openStatelessSession();
+        Query<?> query = session.createQuery(serializer.toString(), factoryExpression != null ? Object[].class : projection.getType());
+        JPAUtil.setConstants(query, serializer.getConstants(), metadata.getParams());
+
+        QueryModifiers modifiers = metadata.getModifiers();
+        if (modifiers != null && modifiers.getOffset() != null) {
+            query.setFirstResult(modifiers.getOffset().intValue());
+        }
+        if (modifiers != null && modifiers.getLimit() != null) {
+            query.setMaxResults(modifiers.getLimit().intValue());
+        }
+
+        query.setHint(HibernateHints.HINT_READ_ONLY, true);
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize);
+        cursor = query.scroll(ScrollMode.FORWARD_ONLY);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected T doRead() throws Exception {
+        if (!cursor.next()) {
+            return null;
+        }
+        Object row = cursor.get();
+        if (factoryExpression != null) {
+            return factoryExpression.newInstance((Object[]) row);
+        }
+        return (T) row;
+    }
+
+    @Override
+    protected void doClose() throws Exception {
+        if (cursor != null) {
+            cursor.close();
+            cursor = null;
+        }
+        if (session != null) {
+            session.close();
+            session = null;
+        }
+        factoryExpression = null;
+    }
+}
@@ -0,0 +1,51 @@
+package com.study.batch_sample.week9.job;
+
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.util.ClassUtils;
+
+import java.util.function.Function;
+
+public class QuerydslCursorItemReaderBuilder<T> {
+
+    private EntityManagerFactory entityManagerFactory;
+    private Function<JPAQueryFactory, JPAQuery<T>> querySupplier;
+
+    private int fetchSize = 1000;
+    private String name;
+
+    public QuerydslCursorItemReaderBuilder<T> entityManagerFactory(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+        return this;
+    }
+
+    public QuerydslCursorItemReaderBuilder<T> querySupplier(Function<JPAQueryFactory, JPAQuery<T>> querySupplier) {
+        this.querySupplier = querySupplier;
+        return this;
+    }
+
+    public QuerydslCursorItemReaderBuilder<T> fetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+        return this;
+    }
+
+    public QuerydslCursorItemReaderBuilder<T> name(String name) {
+        this.name = name;
+        return this;
+    }
+
+    public QuerydslCursorItemReader<T> build() {
+        if (name == null) {
+            this.name = ClassUtils.getShortName(QuerydslCursorItemReader.class);
+        }
+        if (this.entityManagerFactory == null) {
+            throw new IllegalArgumentException("EntityManagerFactory can not be null.!");
+        }
+        if (this.querySupplier == null) {
+            throw new IllegalArgumentException("Function<JPAQueryFactory, JPAQuery<T>> can not be null.!");
+        }
+
+        return new QuerydslCursorItemReader<>(this.name, entityManagerFactory, querySupplier, fetchSize);
+    }
+}
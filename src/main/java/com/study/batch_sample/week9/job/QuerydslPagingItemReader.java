@@ -1,25 +1,64 @@
 package com.study.batch_sample.week9.job;
 
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.NumberPath;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.study.batch_sample.support.jfr.BatchEvents;
+import com.study.batch_sample.support.jfr.PageFetchEvent;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
 import org.springframework.batch.item.database.AbstractPagingItemReader;
-import org.springframework.batch.item.database.PagingQueryProvider;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.NumberUtils;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 public class QuerydslPagingItemReader<T> extends AbstractPagingItemReader<T> {
 
+    private static final String START_AFTER_KEY = "start.after";
+
+    private final String name;
+    private final EntityManagerFactory entityManagerFactory;
     private EntityManager em;
     private final Function<JPAQueryFactory , JPAQuery<T>> querySupplier;
 
     private final boolean alwaysReadFromZero;
 
+    // false 면 DTO projection 쿼리로 보고 엔티티 관리(read-only 힌트, detach)를 건너뛴다
+    private boolean entityResult = true;
+
+    // querySupplier 에 추가로 거는 조건 (파티션 범위 등)
+    private Predicate[] predicates = new Predicate[0];
+
+    // keyset(no-offset) 모드에서 사용하는 정렬 키와 item 에서 키를 꺼내는 함수
+    private NumberPath<? extends Number> sortKey;
+    private Function<T, ? extends Number> keyExtractor;
+
+    // 현재 페이지를 조회할 때 사용한 키 (where sortKey > pageStartAfter)
+    private Number pageStartAfter;
+    // 현재 페이지의 마지막 키
+    private Number pageLastKey;
+
+    // read-ahead: 0 이면 사용하지 않고, N 이면 백그라운드 스레드가 최대 N 페이지를 미리 읽어둔다
+    private int prefetchPages;
+    private ExecutorService prefetchExecutor;
+    private BlockingQueue<PrefetchedPage<T>> prefetchedPages;
+    private boolean prefetchExhausted;
+
     public QuerydslPagingItemReader(EntityManagerFactory entityManagerFactory, Function<JPAQueryFactory, JPAQuery<T>> querySupplier, int chunkSize) {
         this(ClassUtils.getShortName(QuerydslPagingItemReader.class) , entityManagerFactory , querySupplier , chunkSize , false);
     }
@@ -28,13 +67,73 @@ public class QuerydslPagingItemReader<T> extends AbstractPagingItemReader<T> {
     public QuerydslPagingItemReader(String name , EntityManagerFactory entityManagerFactory , Function<JPAQueryFactory ,JPAQuery<T>> querySupplier , int chunkSize , boolean alwaysReadFromZero) {
         super.setPageSize(chunkSize);
         setName(name);
+        this.name = name;
         this.querySupplier =  querySupplier;
+        this.entityManagerFactory = entityManagerFactory;
         this.em = entityManagerFactory.createEntityManager();
         this.alwaysReadFromZero = alwaysReadFromZero;
     }
 
+    /**
+     * offset 대신 정렬 키 기준으로 다음 페이지를 읽는다. (where sortKey > :lastSeen order by sortKey limit n)
+     * querySupplier 에는 order by 를 지정하지 않는다.
+     */
+    public void setKeyset(NumberPath<? extends Number> sortKey, Function<T, ? extends Number> keyExtractor) {
+        this.sortKey = sortKey;
+        this.keyExtractor = keyExtractor;
+    }
+
+    public void setEntityResult(boolean entityResult) {
+        this.entityResult = entityResult;
+    }
+
+    public void setPredicates(List<Predicate> predicates) {
+        this.predicates = predicates.toArray(new Predicate[0]);
+    }
+
+    /**
+     * 현재 페이지를 처리하는 동안 다음 페이지들을 별도 스레드(별도 EntityManager)에서 미리 조회한다.
+     * 재시작 위치는 실제로 소비한 페이지 기준으로 저장되므로 미리 읽어둔 페이지는 버려져도 무방하다.
+     */
+    public void setPrefetchPages(int prefetchPages) {
+        this.prefetchPages = prefetchPages;
+    }
+
+    @Override
+    protected void doOpen() throws Exception {
+        super.doOpen();
+        pageStartAfter = null;
+        pageLastKey = null;
+        prefetchExhausted = false;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        super.open(executionContext);
+
+        String key = getExecutionContextKey(START_AFTER_KEY);
+        if (isKeysetMode() && isSaveState() && executionContext.containsKey(key)) {
+            pageLastKey = NumberUtils.convertNumberToTargetClass((Number) executionContext.get(key), sortKey.getType());
+        }
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        super.update(executionContext);
+
+        if (isKeysetMode() && isSaveState()) {
+            // 재시작 시 read.count 로 페이지 안의 위치를 다시 건너뛰므로
+            // 페이지를 다 읽은 시점이면 마지막 키, 아니면 현재 페이지의 시작 키를 저장한다
+            Number restartKey = getCurrentItemCount() % getPageSize() == 0 ? pageLastKey : pageStartAfter;
+            if (restartKey != null) {
+                executionContext.put(getExecutionContextKey(START_AFTER_KEY), restartKey);
+            }
+        }
+    }
+
     @Override
     protected void doClose() throws Exception {
+        stopPrefetch();
         if (em != null) {
             em.close();
         }
@@ -45,22 +144,157 @@ public class QuerydslPagingItemReader<T> extends AbstractPagingItemReader<T> {
     protected void doReadPage() {
         initQueryResult();
 
-        JPAQueryFactory jpaQueryFactory = new JPAQueryFactory(em);
-        long offset = 0;
-        if (!alwaysReadFromZero) {
-            offset = (long) getPage() * getPageSize();
+        List<T> queryResult;
+        if (prefetchPages > 0) {
+            PrefetchedPage<T> page = takePrefetchedPage();
+            pageStartAfter = page.startAfter();
+            queryResult = page.items();
+        } else {
+            pageStartAfter = pageLastKey;
+            queryResult = fetchPage(em, currentOffset(), pageStartAfter);
         }
+        results.addAll(queryResult);
 
-        JPAQuery<T> query = querySupplier.apply(jpaQueryFactory).offset(offset).limit(getPageSize());
+        if (isKeysetMode() && !queryResult.isEmpty()) {
+            pageLastKey = keyOf(queryResult);
+        }
+    }
 
-        List<T> queryResult = query.fetch();
-        for (T entity : queryResult) {
-            em.detach(entity);
-            results.add(entity);
+    private List<T> fetchPage(EntityManager entityManager, long offset, Number startAfter) {
+        PageFetchEvent event = new PageFetchEvent();
+        event.begin();
+        List<T> page = queryPage(entityManager, offset, startAfter);
+        event.end();
 
+        if (event.shouldCommit()) {
+            event.reader = name;
+            event.step = BatchEvents.currentStepName();
+            event.offset = isKeysetMode() ? -1 : offset;
+            event.startAfter = String.valueOf(startAfter);
+            event.rowCount = page.size();
+            event.prefetch = entityManager != em;
+            event.commit();
         }
+        return page;
     }
 
+    private List<T> queryPage(EntityManager entityManager, long offset, Number startAfter) {
+        JPAQueryFactory jpaQueryFactory = new JPAQueryFactory(entityManager);
+        JPAQuery<T> query = querySupplier.apply(jpaQueryFactory).where(predicates);
+
+        if (isKeysetMode()) {
+            if (startAfter != null) {
+                query.where(keyGreaterThan(startAfter));
+            }
+            query.orderBy(sortKey.asc()).limit(getPageSize());
+        } else {
+            query.offset(offset).limit(getPageSize());
+        }
+
+        if (!entityResult) {
+            return query.fetch();
+        }
+
+        // 스냅샷을 남기지 않도록 read-only 로 읽고, 페이지 단위로 영속성 컨텍스트를 비운다
+        List<T> queryResult = query.setHint(HibernateHints.HINT_READ_ONLY, true).fetch();
+        entityManager.clear();
+        return queryResult;
+    }
+
+    private long currentOffset() {
+        if (alwaysReadFromZero) {
+            return 0;
+        }
+        return (long) getPage() * getPageSize();
+    }
+
+    private PrefetchedPage<T> takePrefetchedPage() {
+        if (prefetchExhausted) {
+            return new PrefetchedPage<>(pageLastKey, Collections.emptyList(), null);
+        }
+        if (prefetchExecutor == null) {
+            startPrefetch(currentOffset(), pageLastKey);
+        }
+
+        PrefetchedPage<T> page;
+        try {
+            page = prefetchedPages.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataAccessResourceFailureException("Interrupted while waiting for prefetched page", e);
+        }
+        if (page.error() != null) {
+            throw page.error();
+        }
+        if (page.items().size() < getPageSize()) {
+            prefetchExhausted = true;
+        }
+        return page;
+    }
+
+    private void startPrefetch(long offset, Number startAfter) {
+        prefetchedPages = new ArrayBlockingQueue<>(prefetchPages);
+        prefetchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "querydsl-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        prefetchExecutor.execute(() -> prefetch(offset, startAfter));
+    }
+
+    private void prefetch(long offset, Number startAfter) {
+        // EntityManager 는 스레드 간에 공유할 수 없으므로 prefetch 전용으로 따로 연다
+        EntityManager prefetchEm = entityManagerFactory.createEntityManager();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                PrefetchedPage<T> page;
+                try {
+                    page = new PrefetchedPage<>(startAfter, fetchPage(prefetchEm, offset, startAfter), null);
+                } catch (RuntimeException e) {
+                    page = new PrefetchedPage<>(startAfter, Collections.emptyList(), e);
+                }
+                prefetchedPages.put(page);
+
+                if (page.error() != null || page.items().size() < getPageSize()) {
+                    return;
+                }
+                offset += getPageSize();
+                if (isKeysetMode()) {
+                    startAfter = keyOf(page.items());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            prefetchEm.close();
+        }
+    }
+
+    private void stopPrefetch() throws InterruptedException {
+        if (prefetchExecutor == null) {
+            return;
+        }
+        prefetchExecutor.shutdownNow();
+        prefetchExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        prefetchExecutor = null;
+        prefetchedPages = null;
+    }
+
+    private Number keyOf(List<T> page) {
+        return keyExtractor.apply(page.get(page.size() - 1));
+    }
+
+    private boolean isKeysetMode() {
+        return sortKey != null;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate keyGreaterThan(Number key) {
+        return ((NumberPath) sortKey).gt(key);
+    }
+
+    private record PrefetchedPage<T>(Number startAfter, List<T> items, RuntimeException error) {
+    }
 
     private void initQueryResult() {
         if (CollectionUtils.isEmpty(results)) {
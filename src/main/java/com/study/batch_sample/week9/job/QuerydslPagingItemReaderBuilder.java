@@ -1,10 +1,14 @@
 package com.study.batch_sample.week9.job;
 
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.NumberPath;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManagerFactory;
 import org.springframework.util.ClassUtils;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Function;
 
 public class QuerydslPagingItemReaderBuilder<T> {
@@ -16,6 +20,14 @@ public class QuerydslPagingItemReaderBuilder<T> {
     private String name;
     private Boolean alwaysReadFromZero;
 
+    private NumberPath<? extends Number> sortKey;
+    private Function<T, ? extends Number> keyExtractor;
+
+    private final List<Predicate> predicates = new ArrayList<>();
+
+    private int prefetchPages = 0;
+    private boolean entityResult = true;
+
     public QuerydslPagingItemReaderBuilder<T> entityManagerFactory(EntityManagerFactory entityManagerFactory) {
         this.entityManagerFactory = entityManagerFactory;
         return this;
@@ -26,6 +38,16 @@ public class QuerydslPagingItemReaderBuilder<T> {
         return this;
     }
 
+    /**
+     * Projections.constructor / Projections.fields 로 DTO 를 바로 조회하는 쿼리를 지정한다.
+     * 엔티티를 만들지 않으므로 detach / 영속성 컨텍스트 정리를 하지 않는다.
+     */
+    public QuerydslPagingItemReaderBuilder<T> projectionSupplier(Function<JPAQueryFactory, JPAQuery<T>> projectionSupplier) {
+        this.querySupplier = projectionSupplier;
+        this.entityResult = false;
+        return this;
+    }
+
     public QuerydslPagingItemReaderBuilder<T> chunkSize(int chunkSize) {
         this.chunkSize = chunkSize;
         return this;
@@ -41,6 +63,28 @@ public class QuerydslPagingItemReaderBuilder<T> {
         return this;
     }
 
+    public <K extends Number & Comparable<?>> QuerydslPagingItemReaderBuilder<T> keyset(NumberPath<K> sortKey, Function<T, K> keyExtractor) {
+        this.sortKey = sortKey;
+        this.keyExtractor = keyExtractor;
+        return this;
+    }
+
+    /**
+     * querySupplier 의 쿼리에 조건을 추가한다. (ex. 파티션 범위 id between :minId and :maxId)
+     */
+    public QuerydslPagingItemReaderBuilder<T> where(Predicate predicate) {
+        this.predicates.add(predicate);
+        return this;
+    }
+
+    /**
+     * 다음 페이지를 최대 prefetchPages 개까지 백그라운드에서 미리 읽는다. (0 이면 사용하지 않음)
+     */
+    public QuerydslPagingItemReaderBuilder<T> prefetchPages(int prefetchPages) {
+        this.prefetchPages = prefetchPages;
+        return this;
+    }
+
     public QuerydslPagingItemReader<T> build() {
         if (name == null) {
             this.name = ClassUtils.getShortName(QuerydslPagingItemReader.class);
@@ -54,8 +98,24 @@ public class QuerydslPagingItemReaderBuilder<T> {
         if (this.alwaysReadFromZero == null) {
             alwaysReadFromZero = false;
         }
+        if (this.prefetchPages < 0) {
+            throw new IllegalArgumentException("prefetchPages can not be negative.!");
+        }
+        if (this.prefetchPages > 0 && this.alwaysReadFromZero) {
+            throw new IllegalArgumentException("prefetchPages can not be used with alwaysReadFromZero.!");
+        }
+        if (this.sortKey != null && this.keyExtractor == null) {
+            throw new IllegalArgumentException("keyExtractor can not be null when sortKey is set.!");
+        }
 
-        return new QuerydslPagingItemReader<>(this.name,entityManagerFactory,querySupplier,chunkSize,alwaysReadFromZero);
+        QuerydslPagingItemReader<T> reader = new QuerydslPagingItemReader<>(this.name, entityManagerFactory, querySupplier, chunkSize, alwaysReadFromZero);
+        if (this.sortKey != null) {
+            reader.setKeyset(sortKey, keyExtractor);
+        }
+        reader.setPredicates(predicates);
+        reader.setPrefetchPages(prefetchPages);
+        reader.setEntityResult(entityResult);
+        return reader;
 
     }
 }
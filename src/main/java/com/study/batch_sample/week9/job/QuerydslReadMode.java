@@ -0,0 +1,11 @@
+package com.study.batch_sample.week9.job;
+
+/**
+ * customer export 조회 방식
+ * KEYSET : WHERE id > :lastId ORDER BY id LIMIT n + 백그라운드 page prefetch (QuerydslPagingItemReader)
+ * CURSOR : 쿼리 한 번 + fetchSize 스트리밍 (QuerydslCursorItemReader)
+ */
+public enum QuerydslReadMode {
+    KEYSET,
+    CURSOR
+}
@@ -0,0 +1,157 @@
+package com.study.batch_sample.support.checkpoint;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamSupport;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DataSourceChunkCheckpointTest {
+
+	private static final String OFFSET_KEY = "reader.offset";
+
+	private EmbeddedDatabase dataSource;
+	private TransactionTemplate transactionTemplate;
+	private PositionStream reader;
+	private DataSourceChunkCheckpoint checkpoint;
+
+	@BeforeEach
+	void setUp() {
+		dataSource = new EmbeddedDatabaseBuilder()
+				.setType(EmbeddedDatabaseType.H2)
+				.generateUniqueName(true)
+				.build();
+		transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		reader = new PositionStream();
+		checkpoint = new DataSourceChunkCheckpoint(dataSource, reader);
+	}
+
+	@AfterEach
+	void tearDown() {
+		dataSource.shutdown();
+	}
+
+	@Test
+	void restartsFromLastChunkCommittedInDataDb() {
+		StepExecution first = stepExecution();
+		checkpoint.beforeStep(first);
+
+		reader.position = 100;
+		commitChunk(first.getExecutionContext());
+
+		// 다음 chunk: meta 에는 저장됐지만 data DB 는 롤백
+		reader.position = 200;
+		transactionTemplate.executeWithoutResult(status -> {
+			checkpoint.update(first.getExecutionContext());
+			reader.update(first.getExecutionContext());
+			status.setRollbackOnly();
+		});
+		assertThat(first.getExecutionContext().getLong(OFFSET_KEY)).isEqualTo(200);
+		first.setStatus(BatchStatus.FAILED);
+		checkpoint.afterStep(first);
+
+		StepExecution restart = restartOf(first);
+		checkpoint.beforeStep(restart);
+
+		assertThat(restart.getExecutionContext().getLong(OFFSET_KEY)).isEqualTo(100);
+	}
+
+	@Test
+	void startsFromBeginningWhenNoChunkWasCommitted() {
+		StepExecution first = stepExecution();
+		checkpoint.beforeStep(first);
+
+		reader.position = 100;
+		transactionTemplate.executeWithoutResult(status -> {
+			checkpoint.update(first.getExecutionContext());
+			reader.update(first.getExecutionContext());
+			status.setRollbackOnly();
+		});
+		first.setStatus(BatchStatus.FAILED);
+		checkpoint.afterStep(first);
+
+		StepExecution restart = restartOf(first);
+		checkpoint.beforeStep(restart);
+
+		assertThat(restart.getExecutionContext().containsKey(OFFSET_KEY)).isFalse();
+	}
+
+	@Test
+	void ignoresUpdatesOutsideChunkTransaction() {
+		StepExecution first = stepExecution();
+		checkpoint.beforeStep(first);
+
+		reader.position = 100;
+		checkpoint.update(first.getExecutionContext());
+		reader.update(first.getExecutionContext());
+		first.setStatus(BatchStatus.FAILED);
+		checkpoint.afterStep(first);
+
+		StepExecution restart = restartOf(first);
+		checkpoint.beforeStep(restart);
+
+		assertThat(restart.getExecutionContext().containsKey(OFFSET_KEY)).isFalse();
+	}
+
+	@Test
+	void clearsCheckpointWhenStepCompletes() {
+		StepExecution first = stepExecution();
+		checkpoint.beforeStep(first);
+		reader.position = 100;
+		commitChunk(first.getExecutionContext());
+		first.setStatus(BatchStatus.COMPLETED);
+		checkpoint.afterStep(first);
+
+		StepExecution next = stepExecution();
+		checkpoint.beforeStep(next);
+
+		assertThat(next.getExecutionContext().isEmpty()).isTrue();
+	}
+
+	// TaskletStep 처럼 chunk 트랜잭션 안에서 stream.update 후 meta 쪽 ExecutionContext 를 저장한다
+	private void commitChunk(ExecutionContext executionContext) {
+		transactionTemplate.executeWithoutResult(status -> {
+			checkpoint.update(executionContext);
+			reader.update(executionContext);
+		});
+	}
+
+	private static StepExecution stepExecution() {
+		JobExecution jobExecution = new JobExecution(new JobInstance(1L, "job"), 1L, new JobParameters());
+		return jobExecution.createStepExecution("step");
+	}
+
+	// 같은 job instance 의 다음 실행. meta 에 저장됐던 ExecutionContext 를 이어받는다
+	private static StepExecution restartOf(StepExecution previous) {
+		JobExecution jobExecution = new JobExecution(previous.getJobExecution().getJobInstance(), 2L, new JobParameters());
+		StepExecution restart = jobExecution.createStepExecution(previous.getStepName());
+		restart.setExecutionContext(new ExecutionContext(previous.getExecutionContext()));
+		return restart;
+	}
+
+	private static class PositionStream extends ItemStreamSupport {
+
+		long position;
+
+		PositionStream() {
+			setName("reader");
+		}
+
+		@Override
+		public void update(ExecutionContext executionContext) {
+			executionContext.putLong(getExecutionContextKey("offset"), position);
+		}
+	}
+}
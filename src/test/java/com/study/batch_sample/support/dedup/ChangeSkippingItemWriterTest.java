@@ -0,0 +1,151 @@
+package com.study.batch_sample.support.dedup;
+
+import com.study.batch_sample.common.Customer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChangeSkippingItemWriterTest {
+
+	private static final RowMapper<Customer> ROW_MAPPER =
+			(rs, rowNum) -> customer(rs.getString("name"), rs.getInt("age"), rs.getString("gender"));
+
+	private EmbeddedDatabase dataSource;
+	private TransactionTemplate transactionTemplate;
+	private final List<String> delegateWrites = new ArrayList<>();
+	private ChangeSkippingItemWriter<Customer> writer;
+
+	@BeforeEach
+	void setUp() {
+		dataSource = new EmbeddedDatabaseBuilder()
+				.setType(EmbeddedDatabaseType.H2)
+				.generateUniqueName(true)
+				.build();
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("CREATE TABLE customer (id INT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(50), age INT, gender VARCHAR(10))");
+		jdbcTemplate.update("INSERT INTO customer (name, age, gender) VALUES ('kim', 20, 'M')");
+
+		transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		writer = newWriter();
+		writer.open(new ExecutionContext());
+	}
+
+	@AfterEach
+	void tearDown() {
+		writer.close();
+		dataSource.shutdown();
+	}
+
+	@Test
+	void skipsRowsAlreadyInTable() {
+		write(customer("kim", 20, "M"), customer("kim", 21, "M"));
+
+		assertThat(delegateWrites).containsExactly("kim");
+		assertThat(unchangedCount()).isEqualTo(1);
+	}
+
+	@Test
+	void rolledBackChunkIsWrittenAgainOnRetry() {
+		Customer lee = customer("lee", 30, "F");
+
+		transactionTemplate.executeWithoutResult(status -> {
+			writeUnchecked(new Chunk<>(customer("kim", 20, "M"), lee));
+			status.setRollbackOnly();
+		});
+		assertThat(delegateWrites).containsExactly("lee");
+		// 롤백된 chunk 의 skip 수도 반영하지 않는다
+		assertThat(unchangedCount()).isZero();
+
+		// 재시도한 chunk 에서 lee 를 건너뛰면 안 된다
+		transactionTemplate.executeWithoutResult(status -> writeUnchecked(new Chunk<>(lee)));
+		assertThat(delegateWrites).containsExactly("lee", "lee");
+
+		// commit 된 뒤에는 같은 내용을 건너뛴다
+		transactionTemplate.executeWithoutResult(status -> writeUnchecked(new Chunk<>(lee)));
+		assertThat(delegateWrites).containsExactly("lee", "lee");
+		assertThat(unchangedCount()).isEqualTo(1);
+	}
+
+	@Test
+	void fingerprintsArePublishedOnlyAfterCommit() {
+		Customer lee = customer("lee", 30, "F");
+
+		transactionTemplate.executeWithoutResult(status -> {
+			writeUnchecked(new Chunk<>(lee));
+			// 같은 트랜잭션 안에서는 아직 집합에 없다
+			writeUnchecked(new Chunk<>(lee));
+		});
+
+		assertThat(delegateWrites).containsExactly("lee", "lee");
+		assertThat(unchangedCount()).isZero();
+	}
+
+	@Test
+	void openFailsWithoutUniqueIndexOnUpsertKey() {
+		ChangeSkippingItemWriter<Customer> upsertWriter = newWriter();
+		upsertWriter.setUniqueKey("name");
+
+		assertThatThrownBy(() -> upsertWriter.open(new ExecutionContext()))
+				.isInstanceOf(ItemStreamException.class)
+				.hasMessageContaining("unique index");
+	}
+
+	@Test
+	void openSucceedsWithUniqueIndexOnUpsertKey() {
+		new JdbcTemplate(dataSource).execute("CREATE UNIQUE INDEX ux_customer_name ON customer (name)");
+		ChangeSkippingItemWriter<Customer> upsertWriter = newWriter();
+		upsertWriter.setUniqueKey("name");
+
+		upsertWriter.open(new ExecutionContext());
+		upsertWriter.close();
+	}
+
+	private ChangeSkippingItemWriter<Customer> newWriter() {
+		return new ChangeSkippingItemWriter<>(
+				chunk -> chunk.forEach(item -> delegateWrites.add(item.getName())),
+				Fingerprints::customer,
+				dataSource, "customer", "SELECT name, age, gender FROM customer", ROW_MAPPER);
+	}
+
+	private void write(Customer... customers) {
+		transactionTemplate.executeWithoutResult(status -> writeUnchecked(new Chunk<>(customers)));
+	}
+
+	private void writeUnchecked(Chunk<Customer> chunk) {
+		try {
+			writer.write(chunk);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private long unchangedCount() {
+		ExecutionContext executionContext = new ExecutionContext();
+		writer.update(executionContext);
+		return executionContext.getLong("ChangeSkippingItemWriter." + ChangeSkippingItemWriter.UNCHANGED_COUNT);
+	}
+
+	private static Customer customer(String name, int age, String gender) {
+		Customer customer = new Customer();
+		customer.setName(name);
+		customer.setAge(age);
+		customer.setGender(gender);
+		return customer;
+	}
+}
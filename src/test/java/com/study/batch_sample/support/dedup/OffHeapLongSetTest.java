@@ -0,0 +1,74 @@
+package com.study.batch_sample.support.dedup;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OffHeapLongSetTest {
+
+	@Test
+	void zeroIsStoredApartFromEmptySlots() {
+		OffHeapLongSet set = new OffHeapLongSet(10);
+
+		assertThat(set.contains(0)).isFalse();
+		assertThat(set.add(0)).isTrue();
+		assertThat(set.add(0)).isFalse();
+		assertThat(set.contains(0)).isTrue();
+		assertThat(set.size()).isEqualTo(1);
+
+		// 0 이 빈 슬롯 표시와 섞이지 않아야 한다
+		assertThat(set.add(1)).isTrue();
+		assertThat(set.contains(1)).isTrue();
+		assertThat(set.size()).isEqualTo(2);
+	}
+
+	@Test
+	void growsPastMaxLoadAndKeepsEveryValue() {
+		OffHeapLongSet set = new OffHeapLongSet(0);
+		long initialBytes = set.memoryBytes();
+
+		// 하위 비트가 같은 값을 섞어 probing 이 길어지는 경우도 포함한다
+		int count = 10_000;
+		for (long i = 1; i <= count; i++) {
+			assertThat(set.add(i * 1024)).isTrue();
+		}
+
+		assertThat(set.size()).isEqualTo(count);
+		assertThat(set.memoryBytes()).isGreaterThan(initialBytes);
+		// 채움 비율 60% 이하를 유지한다
+		assertThat(set.memoryBytes() / Long.BYTES * 0.6).isGreaterThanOrEqualTo(count);
+		for (long i = 1; i <= count; i++) {
+			assertThat(set.contains(i * 1024)).isTrue();
+		}
+		assertThat(set.contains(1023)).isFalse();
+		assertThat(set.contains((count + 1) * 1024L)).isFalse();
+	}
+
+	@Test
+	void duplicatesAreNotCountedTwice() {
+		OffHeapLongSet set = new OffHeapLongSet(100);
+
+		assertThat(set.add(42)).isTrue();
+		assertThat(set.add(-42)).isTrue();
+		assertThat(set.add(42)).isFalse();
+		assertThat(set.add(-42)).isFalse();
+		assertThat(set.add(Long.MIN_VALUE)).isTrue();
+		assertThat(set.add(Long.MIN_VALUE)).isFalse();
+
+		assertThat(set.size()).isEqualTo(3);
+	}
+
+	@Test
+	void duplicatesAcrossGrowthAreNotCountedTwice() {
+		OffHeapLongSet set = new OffHeapLongSet(0);
+
+		for (long i = 1; i <= 5_000; i++) {
+			set.add(i);
+		}
+		for (long i = 1; i <= 5_000; i++) {
+			assertThat(set.add(i)).isFalse();
+		}
+
+		assertThat(set.size()).isEqualTo(5_000);
+	}
+}
@@ -0,0 +1,109 @@
+package com.study.batch_sample.week9.job;
+
+import com.study.batch_sample.entity.Customer;
+import com.study.batch_sample.entity.QCustomer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * keyset 모드에서 페이지 중간에 update 로 저장한 위치로 다시 열었을 때 건너뛰거나 중복되는 item 이 없는지 확인한다.
+ * id 는 2, 4, 6 ... 으로 넣어 read.count 와 키 값이 어긋나게 한다.
+ */
+class QuerydslPagingItemReaderRestartTest {
+
+	private static final int PAGE_SIZE = 3;
+	private static final int ROWS = 10;
+
+	private EmbeddedDatabase dataSource;
+	private LocalContainerEntityManagerFactoryBean entityManagerFactory;
+
+	@BeforeEach
+	void setUp() {
+		dataSource = new EmbeddedDatabaseBuilder()
+				.setType(EmbeddedDatabaseType.H2)
+				.generateUniqueName(true)
+				.build();
+
+		entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+		entityManagerFactory.setDataSource(dataSource);
+		entityManagerFactory.setPackagesToScan("com.study.batch_sample.entity");
+		entityManagerFactory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+		entityManagerFactory.setJpaPropertyMap(Map.of("hibernate.hbm2ddl.auto", "create-drop"));
+		entityManagerFactory.afterPropertiesSet();
+
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		for (int i = 1; i <= ROWS; i++) {
+			jdbcTemplate.update("INSERT INTO customer (id, name, age, gender) VALUES (?, ?, ?, ?)",
+					i * 2, "name" + i, 20 + i, i % 2 == 0 ? "M" : "F");
+		}
+	}
+
+	@AfterEach
+	void tearDown() {
+		entityManagerFactory.destroy();
+		dataSource.shutdown();
+	}
+
+	@ParameterizedTest(name = "read {0} items, prefetchPages={1}")
+	@CsvSource({
+			"1, 0",
+			"3, 0",   // 페이지 경계
+			"4, 0",   // 페이지 중간
+			"5, 0",
+			"9, 0",
+			"4, 2",
+			"6, 2",
+	})
+	void restartsFromSavedKeyWithoutSkipsOrDuplicates(int readBeforeFailure, int prefetchPages) throws Exception {
+		ExecutionContext executionContext = new ExecutionContext();
+		List<Integer> ids = new ArrayList<>();
+
+		QuerydslPagingItemReader<Customer> first = reader(prefetchPages);
+		first.open(executionContext);
+		for (int i = 0; i < readBeforeFailure; i++) {
+			ids.add(first.read().getId());
+		}
+		// chunk commit 시점에 저장되는 상태
+		first.update(executionContext);
+		// 저장 이후에 읽었지만 commit 되지 않은 item
+		first.read();
+		first.close();
+
+		QuerydslPagingItemReader<Customer> restarted = reader(prefetchPages);
+		restarted.open(executionContext);
+		Customer customer;
+		while ((customer = restarted.read()) != null) {
+			ids.add(customer.getId());
+		}
+		restarted.close();
+
+		assertThat(ids).containsExactlyElementsOf(IntStream.rangeClosed(1, ROWS).map(i -> i * 2).boxed().toList());
+	}
+
+	private QuerydslPagingItemReader<Customer> reader(int prefetchPages) {
+		return new QuerydslPagingItemReaderBuilder<Customer>()
+				.name("customerReader")
+				.entityManagerFactory(entityManagerFactory.getObject())
+				.querySupplier(jpaQueryFactory -> jpaQueryFactory.selectFrom(QCustomer.customer))
+				.keyset(QCustomer.customer.id, Customer::getId)
+				.chunkSize(PAGE_SIZE)
+				.prefetchPages(prefetchPages)
+				.build();
+	}
+}